@@ -0,0 +1,121 @@
+/*
+ * Source code of the experiments from our 2016 paper 
+ * "Lightning: Utility-driven anonymization of high-dimensional data"
+ *      
+ * Copyright (C) 2015 Fabian Prasser, Raffael Bild, Johanna Eicher, Helmut Spengler, Florian Kohlmayer
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.jmh;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.deidentifier.arx.BenchmarkEnvironment;
+import org.deidentifier.arx.BenchmarkSetup.BenchmarkAlgorithm;
+import org.deidentifier.arx.framework.check.NodeChecker;
+import org.deidentifier.arx.framework.lattice.SolutionSpace;
+import org.deidentifier.arx.framework.lattice.Transformation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures single checks of a transformation, including the evaluation of the quality
+ * model. The quality model is determined by the algorithm: DataFly and IGreedy use their
+ * own metrics, all other algorithms use the loss metric. The history of the checker is
+ * cleared before each invocation, so that each check starts from the input data.
+ *
+ * @author Fabian Prasser
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CheckBenchmark {
+
+    /** Algorithm, determines the quality model */
+    @Param({ "FLASH", "DATAFLY", "IGREEDY" })
+    public BenchmarkAlgorithm algorithm;
+
+    /** Relative level of the transformation, between 0 (bottom) and 1 (top) */
+    @Param({ "0", "0.5", "1" })
+    public double             level;
+
+    /** Number of records */
+    @Param({ "10000" })
+    public int                rows;
+
+    /** Number of quasi-identifiers */
+    @Param({ "6" })
+    public int                columns;
+
+    /** Height of the hierarchies */
+    @Param({ "4" })
+    public int                height;
+
+    /** Checker */
+    private NodeChecker        checker;
+
+    /** Transformation */
+    private Transformation     transformation;
+
+    /**
+     * Prepares a trial
+     * @throws IOException
+     */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        BenchmarkEnvironment environment = SyntheticEnvironment.create(algorithm, rows, columns, height, 0d);
+        SolutionSpace solutions = environment.getSolutionSpace();
+        checker = environment.getNodeChecker();
+
+        // Distribute the levels over all attributes
+        int[] generalization = new int[columns];
+        int remaining = (int) Math.round(level * columns * (height - 1));
+        for (int i = 0; i < columns; i++) {
+            generalization[i] = Math.min(height - 1, remaining / (columns - i));
+            remaining -= generalization[i];
+        }
+        transformation = solutions.getTransformation(generalization);
+    }
+
+    /**
+     * Clears the history
+     */
+    @Setup(Level.Invocation)
+    public void reset() {
+        checker.getHistory().reset();
+    }
+
+    /**
+     * Performs the check
+     * @return
+     */
+    @Benchmark
+    public NodeChecker.Result check() {
+        return checker.check(transformation, true);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Source code of the experiments from our 2016 paper 
+ * "Lightning: Utility-driven anonymization of high-dimensional data"
+ *      
+ * Copyright (C) 2015 Fabian Prasser, Raffael Bild, Johanna Eicher, Helmut Spengler, Florian Kohlmayer
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.jmh;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.deidentifier.arx.BenchmarkEnvironment;
+import org.deidentifier.arx.BenchmarkSetup.BenchmarkAlgorithm;
+import org.deidentifier.arx.algorithm.AlgorithmBenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures complete searches of the solution space. The data is encoded once per trial. The
+ * solution space and the checker store the state of the search, which is why both are created
+ * anew before each invocation. Lightning without a time limit traverses the complete solution
+ * space.
+ *
+ * @author Fabian Prasser
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SearchBenchmark {
+
+    /** Algorithm */
+    @Param({ "FLASH", "LIGHTNIG_MINIMAL", "LIGHTNING", "HYBRID", "DATAFLY", "IGREEDY" })
+    public BenchmarkAlgorithm algorithm;
+
+    /** Number of records */
+    @Param({ "10000" })
+    public int                rows;
+
+    /** Number of quasi-identifiers */
+    @Param({ "6" })
+    public int                columns;
+
+    /** Height of the hierarchies */
+    @Param({ "4" })
+    public int                height;
+
+    /** Suppression limit */
+    @Param({ "0.02" })
+    public double             suppressionLimit;
+
+    /** Environment */
+    private BenchmarkEnvironment environment;
+
+    /** Algorithm */
+    private AlgorithmBenchmark   implementation;
+
+    /**
+     * Prepares a trial
+     * @throws IOException
+     */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        environment = SyntheticEnvironment.create(algorithm, rows, columns, height, suppressionLimit);
+    }
+
+    /**
+     * Prepares an invocation
+     */
+    @Setup(Level.Invocation)
+    public void reset() {
+        environment.reset();
+        implementation = environment.getAlgorithm(algorithm, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Performs the search
+     * @return
+     */
+    @Benchmark
+    public AlgorithmBenchmark search() {
+        implementation.traverse();
+        return implementation;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Source code of the experiments from our 2016 paper 
+ * "Lightning: Utility-driven anonymization of high-dimensional data"
+ *      
+ * Copyright (C) 2015 Fabian Prasser, Raffael Bild, Johanna Eicher, Helmut Spengler, Florian Kohlmayer
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.jmh;
+
+import java.io.IOException;
+import java.util.Random;
+
+import org.deidentifier.arx.ARXConfiguration;
+import org.deidentifier.arx.AttributeType.Hierarchy;
+import org.deidentifier.arx.BenchmarkEnvironment;
+import org.deidentifier.arx.BenchmarkSetup;
+import org.deidentifier.arx.BenchmarkSetup.BenchmarkAlgorithm;
+import org.deidentifier.arx.BenchmarkSetup.BenchmarkPrivacyModel;
+import org.deidentifier.arx.BenchmarkSetup.BenchmarkQualityMeasure;
+import org.deidentifier.arx.Data;
+import org.deidentifier.arx.Data.DefaultData;
+
+/**
+ * Creates benchmark environments for fixed synthetic datasets. Each attribute is a
+ * quasi-identifier with a uniformly distributed integer domain and a hierarchy which
+ * halves the number of distinct values on each level. Data is generated with a fixed
+ * seed, so that all runs operate on exactly the same input.
+ *
+ * @author Fabian Prasser
+ */
+public class SyntheticEnvironment {
+
+    /** Seed */
+    private static final long SEED = 0x5eed;
+
+    /**
+     * Creates a new environment for k-anonymity
+     * @param algorithm
+     * @param rows
+     * @param columns
+     * @param height
+     * @param suppressionLimit
+     * @return
+     * @throws IOException
+     */
+    public static BenchmarkEnvironment create(BenchmarkAlgorithm algorithm,
+                                              int rows,
+                                              int columns,
+                                              int height,
+                                              double suppressionLimit) throws IOException {
+
+        // The dataset is not needed for configuring k-anonymity
+        ARXConfiguration config = BenchmarkSetup.getConfiguration(null,
+                                                                  BenchmarkQualityMeasure.LOSS,
+                                                                  algorithm,
+                                                                  BenchmarkPrivacyModel.K_ANONYMITY);
+        config.setMaxOutliers(suppressionLimit);
+        return new BenchmarkEnvironment(getData(rows, columns, height), config);
+    }
+
+    /**
+     * Returns a synthetic dataset
+     * @param rows
+     * @param columns
+     * @param height
+     * @return
+     */
+    public static Data getData(int rows, int columns, int height) {
+
+        // Header
+        DefaultData data = Data.create();
+        String[] header = new String[columns];
+        for (int i = 0; i < columns; i++) {
+            header[i] = "qi" + i;
+        }
+        data.add(header);
+
+        // Records
+        int domain = 1 << (height - 1);
+        Random random = new Random(SEED);
+        for (int i = 0; i < rows; i++) {
+            String[] row = new String[columns];
+            for (int j = 0; j < columns; j++) {
+                row[j] = String.valueOf(random.nextInt(domain));
+            }
+            data.add(row);
+        }
+
+        // Hierarchies
+        Hierarchy hierarchy = getHierarchy(domain, height);
+        for (int i = 0; i < columns; i++) {
+            data.getDefinition().setAttributeType(header[i], hierarchy);
+        }
+        return data;
+    }
+
+    /**
+     * Returns a hierarchy for the values 0 to domain-1
+     * @param domain
+     * @param height
+     * @return
+     */
+    private static Hierarchy getHierarchy(int domain, int height) {
+        String[][] hierarchy = new String[domain][height];
+        for (int value = 0; value < domain; value++) {
+            for (int level = 0; level < height - 1; level++) {
+                int lower = (value >> level) << level;
+                int upper = lower + (1 << level) - 1;
+                hierarchy[value][level] = level == 0 ? String.valueOf(value) : "[" + lower + "-" + upper + "]";
+            }
+            hierarchy[value][height - 1] = "*";
+        }
+        return Hierarchy.create(hierarchy);
+    }
+}
@@ -0,0 +1,363 @@
+/*
+ * Source code of the experiments from our 2016 paper 
+ * "Lightning: Utility-driven anonymization of high-dimensional data"
+ *      
+ * Copyright (C) 2015 Fabian Prasser, Raffael Bild, Johanna Eicher, Helmut Spengler, Florian Kohlmayer
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.deidentifier.arx.algorithm.AlgorithmCheckRecord;
+
+/**
+ * A persistent cache of check results for one cell of the benchmark, i.e. one combination of
+ * dataset, quality measure, privacy model and suppression limit. Maps transformations, which are
+ * identified by the mixed-radix encoding of their generalization vectors, to whether they are
+ * anonymous and to their information loss. The cache is an open-addressing hash table in a
+ * memory-mapped file, which is shared between all processes working on the same cell. Within a
+ * process, access to a file is serialized, because file locks are held on behalf of the whole JVM.
+ * If the table is full, further results are dropped and a warning is printed.<br>
+ * <br>
+ * The cache is disabled by default. It is enabled by setting the system property
+ * <code>benchmark.cache</code> to the folder in which the files are to be stored. Searches which
+ * are neither timed nor limited in time may record the results of their checks, which are added
+ * to the cache after the search has finished. It is not enabled in forked JVMs. As
+ * searches require the complete information loss of transformations, the cache is only consulted
+ * when transformations are checked outside of searches, i.e. when scanning the solution space for
+ * metadata and when converting the results of DataFly and IGreedy.
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkCheckCache {
+
+    /** Folder containing the caches, null if caching is disabled */
+    public static final String             FOLDER    = System.getProperty("benchmark.cache");
+
+    /** Magic number of the file format */
+    private static final int               MAGIC     = 0x41525843;
+
+    /** Version of the file format */
+    private static final int               VERSION   = 1;
+
+    /** Size of the header in bytes: magic, version, capacity, number of entries, size of the solution space */
+    private static final int               HEADER    = 24;
+
+    /** Size of a slot in bytes: key, information loss */
+    private static final int               SLOT      = 16;
+
+    /** Maximal number of slots */
+    private static final int               MAX_SLOTS = 1 << 24;
+
+    /** Bit marking anonymous transformations in keys */
+    private static final long              ANONYMOUS = 1L << 63;
+
+    /** Locks of the files opened by this process */
+    private static final Map<String, Lock> LOCKS     = new HashMap<String, Lock>();
+
+    /**
+     * Opens the cache for the given cell. Returns null if caching is disabled.
+     * @param size Size of the solution space
+     * @param cell Labels of the cell
+     * @return
+     * @throws IOException
+     */
+    public static BenchmarkCheckCache open(long size, String... cell) throws IOException {
+        if (FOLDER == null) {
+            return null;
+        }
+        File folder = new File(FOLDER);
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Cannot create folder: " + folder);
+        }
+        StringBuilder builder = new StringBuilder();
+        for (String label : cell) {
+            if (builder.length() > 0) {
+                builder.append('-');
+            }
+            builder.append(label.replaceAll("[^A-Za-z0-9.]+", "_"));
+        }
+        return new BenchmarkCheckCache(new File(folder, builder.append(".cache").toString()), size);
+    }
+
+    /**
+     * Returns the lock of the given file within this process
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    private static synchronized Lock getLock(File file) throws IOException {
+        String path = file.getCanonicalPath();
+        Lock lock = LOCKS.get(path);
+        if (lock == null) {
+            lock = new ReentrantLock();
+            LOCKS.put(path, lock);
+        }
+        return lock;
+    }
+
+    /** The name of the file */
+    private final String           name;
+
+    /** The file */
+    private final RandomAccessFile file;
+
+    /** The lock of the file within this process */
+    private final Lock             lock;
+
+    /** The channel */
+    private final FileChannel      channel;
+
+    /** The mapped file */
+    private final MappedByteBuffer buffer;
+
+    /** Number of slots */
+    private final int              capacity;
+
+    /** Whether results have been dropped */
+    private boolean                full;
+
+    /**
+     * Creates a new instance
+     * @param file
+     * @param size
+     * @throws IOException
+     */
+    private BenchmarkCheckCache(File file, long size) throws IOException {
+
+        // Initial capacity
+        long slots = Math.min(MAX_SLOTS, Math.max(16L, size * 2L));
+        int capacity = Integer.highestOneBit((int) slots - 1) << 1;
+
+        // Open and initialize, if needed
+        this.name = file.getPath();
+        this.lock = getLock(file);
+        this.file = new RandomAccessFile(file, "rw");
+        this.channel = this.file.getChannel();
+        FileLock lock = lock();
+        try {
+            if (this.file.length() < HEADER) {
+                this.file.setLength(HEADER + (long) capacity * SLOT);
+                this.file.seek(0);
+                this.file.writeInt(MAGIC);
+                this.file.writeInt(VERSION);
+                this.file.writeInt(capacity);
+                this.file.writeInt(0);
+                this.file.writeLong(size);
+            } else {
+                this.file.seek(0);
+                if (this.file.readInt() != MAGIC || this.file.readInt() != VERSION) {
+                    throw new IOException("Not a check cache: " + file);
+                }
+                capacity = this.file.readInt();
+                this.file.readInt();
+                if (this.file.readLong() != size) {
+                    throw new IOException("Check cache does not match the solution space: " + file);
+                }
+            }
+        } catch (IOException e) {
+            unlock(lock);
+            this.file.close();
+            throw e;
+        }
+        unlock(lock);
+        this.capacity = capacity;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER + (long) capacity * SLOT);
+    }
+
+    /**
+     * Closes the cache
+     * @throws IOException
+     */
+    public void close() throws IOException {
+        buffer.force();
+        file.close();
+    }
+
+    /**
+     * Returns whether a result for the given transformation is contained
+     * @param identifier
+     * @return
+     */
+    public synchronized boolean contains(long identifier) {
+        return find(identifier) != -1;
+    }
+
+    /**
+     * Returns the information loss of the given transformation, NaN if it is not contained or
+     * not numeric
+     * @param identifier
+     * @return
+     */
+    public synchronized double getInformationLoss(long identifier) {
+        int slot = find(identifier);
+        return slot == -1 ? Double.NaN : buffer.getDouble(getOffset(slot) + 8);
+    }
+
+    /**
+     * Returns whether the given transformation is contained and anonymous
+     * @param identifier
+     * @return
+     */
+    public synchronized boolean isAnonymous(long identifier) {
+        int slot = find(identifier);
+        return slot != -1 && (buffer.getLong(getOffset(slot)) & ANONYMOUS) != 0;
+    }
+
+    /**
+     * Stores the result for the given transformation. Results are dropped if the cache is full.
+     * @param identifier
+     * @param anonymous
+     * @param informationLoss
+     * @throws IOException
+     */
+    public synchronized void put(long identifier, boolean anonymous, double informationLoss) throws IOException {
+        FileLock lock = lock();
+        try {
+            insert(identifier, anonymous, informationLoss);
+        } finally {
+            unlock(lock);
+        }
+    }
+
+    /**
+     * Stores the results of the given record. Results are dropped if the cache is full.
+     * @param record
+     * @throws IOException
+     */
+    public synchronized void putAll(AlgorithmCheckRecord record) throws IOException {
+        FileLock lock = lock();
+        try {
+            for (int i = 0; i < record.size(); i++) {
+                insert(record.getIdentifier(i), record.isAnonymous(i), record.getInformationLoss(i));
+            }
+        } finally {
+            unlock(lock);
+        }
+    }
+
+    /**
+     * Returns the slot of the given transformation, -1 if it is not contained
+     * @param identifier
+     * @return
+     */
+    private int find(long identifier) {
+        long key = identifier + 1;
+        int slot = getSlot(key);
+        for (int i = 0; i < capacity; i++) {
+            long current = buffer.getLong(getOffset(slot)) & ~ANONYMOUS;
+            if (current == key) {
+                return slot;
+            } else if (current == 0) {
+                return -1;
+            }
+            slot = (slot + 1) & (capacity - 1);
+        }
+        return -1;
+    }
+
+    /**
+     * Stores the result for the given transformation, must be called while holding the lock
+     * @param identifier
+     * @param anonymous
+     * @param informationLoss
+     */
+    private void insert(long identifier, boolean anonymous, double informationLoss) {
+        int size = buffer.getInt(12);
+        if (size >= capacity / 4 * 3) {
+            if (!full) {
+                full = true;
+                System.err.println("Check cache is full, results are dropped: " + name);
+            }
+            return;
+        }
+        long key = identifier + 1;
+        int slot = getSlot(key);
+        while (true) {
+            long current = buffer.getLong(getOffset(slot)) & ~ANONYMOUS;
+            if (current == key) {
+                return;
+            } else if (current == 0) {
+                // Write the value before the key, which marks the slot as used
+                buffer.putDouble(getOffset(slot) + 8, informationLoss);
+                buffer.putLong(getOffset(slot), anonymous ? key | ANONYMOUS : key);
+                buffer.putInt(12, size + 1);
+                return;
+            }
+            slot = (slot + 1) & (capacity - 1);
+        }
+    }
+
+    /**
+     * Acquires the lock of the file within this process and then the lock of the file
+     * @return
+     * @throws IOException
+     */
+    private FileLock lock() throws IOException {
+        this.lock.lock();
+        boolean locked = false;
+        try {
+            FileLock result = channel.lock(0, HEADER, false);
+            locked = true;
+            return result;
+        } finally {
+            if (!locked) {
+                this.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Releases the given lock of the file and the lock of the file within this process
+     * @param lock
+     * @throws IOException
+     */
+    private void unlock(FileLock lock) throws IOException {
+        try {
+            lock.release();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the offset of the given slot
+     * @param slot
+     * @return
+     */
+    private int getOffset(int slot) {
+        return HEADER + slot * SLOT;
+    }
+
+    /**
+     * Returns the initial slot for the given key
+     * @param key
+     * @return
+     */
+    private int getSlot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 40) & (capacity - 1);
+    }
+}
@@ -0,0 +1,815 @@
+/*
+ * Source code of the experiments from our 2016 paper 
+ * "Lightning: Utility-driven anonymization of high-dimensional data"
+ *      
+ * Copyright (C) 2015 Fabian Prasser, Raffael Bild, Johanna Eicher, Helmut Spengler, Florian Kohlmayer
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Loads benchmark datasets from CSV files. Only the requested columns are extracted
+ * from each line, all other fields are skipped during parsing. The datasets used in
+ * the benchmark do not contain quoted fields, which is why no unescaping is performed. Files
+ * containing quotes are loaded with the CSV parser of ARX instead. Empty lines are rejected, as
+ * skipping them would change the indices of rows, e.g. for research subsets.<br>
+ * <br>
+ * Large files are split into chunks aligned to line boundaries, which are parsed and
+ * dictionary-encoded by multiple threads. The per-chunk dictionaries are then merged
+ * into a global dictionary per column. Each distinct value is represented by exactly one
+ * string instance, which makes encoding the data within ARX cheap.
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkDataLoader {
+
+    /**
+     * A parsed and encoded part of a file
+     *
+     * @author Fabian Prasser
+     */
+    private static class Chunk {
+
+        /** Dictionaries, one per column */
+        private final ChunkDictionary[] dictionaries;
+        /** Codes, row-major */
+        private int[]                   codes;
+        /** Number of rows */
+        private int                     rows;
+        /** Whether a quote has been found, which stops parsing */
+        private boolean                 quoted;
+
+        /**
+         * Creates a new instance
+         * @param columns
+         */
+        private Chunk(int columns) {
+            this.dictionaries = new ChunkDictionary[columns];
+            for (int i = 0; i < columns; i++) {
+                this.dictionaries[i] = new ChunkDictionary();
+            }
+            this.codes = new int[columns * 1024];
+            this.rows = 0;
+        }
+
+        /**
+         * Makes sure that another row can be stored
+         */
+        private void ensureCapacity() {
+            int required = (rows + 1) * dictionaries.length;
+            if (required > codes.length) {
+                codes = Arrays.copyOf(codes, Math.max(required, codes.length * 2));
+            }
+        }
+    }
+
+    /**
+     * An open-addressing dictionary for byte sequences. Used for encoding the values
+     * of one column within one chunk without creating a string for every field.
+     *
+     * @author Fabian Prasser
+     */
+    private static class ChunkDictionary {
+
+        /** Hash table, stores codes + 1, zero means empty */
+        private int[]    table  = new int[64];
+        /** Hash codes of the values */
+        private int[]    hashes = new int[32];
+        /** Values */
+        private byte[][] values = new byte[32][];
+        /** Number of values */
+        private int      size   = 0;
+
+        /**
+         * Returns the code of the given byte sequence, registers it if required
+         * @param buffer
+         * @param offset
+         * @param length
+         * @return
+         */
+        private int register(byte[] buffer, int offset, int length) {
+
+            // Hash
+            int hash = 1;
+            for (int i = offset; i < offset + length; i++) {
+                hash = 31 * hash + buffer[i];
+            }
+
+            // Probe
+            int mask = table.length - 1;
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (table[slot] != 0) {
+                int code = table[slot] - 1;
+                if (hashes[code] == hash && equals(values[code], buffer, offset, length)) {
+                    return code;
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            // Register
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+                hashes = Arrays.copyOf(hashes, size * 2);
+            }
+            int code = size++;
+            values[code] = Arrays.copyOfRange(buffer, offset, offset + length);
+            hashes[code] = hash;
+            table[slot] = code + 1;
+
+            // Rehash
+            if (size * 2 > table.length) {
+                table = new int[table.length * 2];
+                mask = table.length - 1;
+                for (int i = 0; i < size; i++) {
+                    slot = (hashes[i] ^ (hashes[i] >>> 16)) & mask;
+                    while (table[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    table[slot] = i + 1;
+                }
+            }
+            return code;
+        }
+
+        /**
+         * Compares a value with a byte sequence
+         * @param value
+         * @param buffer
+         * @param offset
+         * @param length
+         * @return
+         */
+        private static boolean equals(byte[] value, byte[] buffer, int offset, int length) {
+            if (value.length != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (value[i] != buffer[offset + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Iterates over encoded chunks, starting with the header
+     *
+     * @author Fabian Prasser
+     */
+    private static class EncodedIterator implements Iterator<String[]> {
+
+        /** Header */
+        private String[]         header;
+        /** Chunks */
+        private final Chunk[]    chunks;
+        /** Global dictionary */
+        private final String[][] dictionary;
+        /** Current chunk */
+        private int              chunk = 0;
+        /** Current row within the chunk */
+        private int              row   = 0;
+
+        /**
+         * Creates a new instance
+         * @param header
+         * @param chunks
+         * @param dictionary
+         */
+        private EncodedIterator(String[] header, Chunk[] chunks, String[][] dictionary) {
+            this.header = header;
+            this.chunks = chunks;
+            this.dictionary = dictionary;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (header != null) {
+                return true;
+            }
+            while (chunk < chunks.length && row == chunks[chunk].rows) {
+                chunks[chunk] = null;
+                chunk++;
+                row = 0;
+            }
+            return chunk < chunks.length;
+        }
+
+        @Override
+        public String[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (header != null) {
+                String[] result = header;
+                header = null;
+                return result;
+            }
+            int[] codes = chunks[chunk].codes;
+            int offset = row * dictionary.length;
+            String[] result = new String[dictionary.length];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = dictionary[i][codes[offset + i]];
+            }
+            row++;
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Iterates over the projected lines of a CSV file, starting with the header
+     *
+     * @author Fabian Prasser
+     */
+    private static class ProjectingIterator implements Iterator<String[]> {
+
+        /** Reader */
+        private final BufferedReader reader;
+        /** Delimiter */
+        private final char           delimiter;
+        /** Maps field indices to output indices, -1 means skip */
+        private final int[]          projection;
+        /** Number of output columns */
+        private final int            columns;
+        /** Next element */
+        private String[]             next;
+
+        /**
+         * Creates a new instance
+         * @param reader
+         * @param delimiter
+         * @param projection
+         * @param header
+         */
+        private ProjectingIterator(BufferedReader reader, char delimiter, int[] projection, String[] header) {
+            this.reader = reader;
+            this.delimiter = delimiter;
+            this.projection = projection;
+            this.columns = header.length;
+            this.next = header;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public String[] next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            String[] result = next;
+            next = read();
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * Reads the next line, closes the reader when the end of the file has been reached or the
+         * line cannot be parsed
+         * @return
+         */
+        private String[] read() {
+            try {
+                String line = reader.readLine();
+                if (line != null && line.isEmpty()) {
+                    throw new IllegalArgumentException("Empty lines are not supported");
+                }
+                if (line == null) {
+                    reader.close();
+                    return null;
+                }
+                return project(line, delimiter, projection, columns);
+            } catch (IOException e) {
+                close();
+                throw new RuntimeException(e);
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        /**
+         * Closes the reader, ignoring errors
+         */
+        private void close() {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                // Ignore
+            }
+        }
+    }
+
+    /** Charset */
+    private static final Charset CHARSET     = Charset.forName("UTF-8");
+
+    /** Size of the read buffer */
+    private static final int     BUFFER_SIZE        = 1 << 20;
+
+    /** Files larger than this are loaded in parallel */
+    private static final long    PARALLEL_THRESHOLD = 32L << 20;
+
+    /** Maximal size of a chunk */
+    private static final int     MAX_CHUNK_SIZE     = 64 << 20;
+
+    /** Number of chunks per thread, for balancing the load */
+    private static final int     CHUNKS_PER_THREAD  = 4;
+
+    /**
+     * Loads the given columns from the given file. The columns will be returned in the given order.
+     * If no columns are given, all columns will be loaded. Large files are loaded in parallel.
+     *
+     * @param file
+     * @param delimiter
+     * @param columns
+     * @return
+     * @throws IOException
+     */
+    public static Data load(String file, char delimiter, String[] columns) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        if (threads > 1 && new File(file).length() >= PARALLEL_THRESHOLD) {
+            return load(file, delimiter, columns, threads);
+        }
+        return loadSequential(file, delimiter, columns);
+    }
+
+    /**
+     * Loads the given columns from the given file using the given number of threads. The columns will
+     * be returned in the given order. If no columns are given, all columns will be loaded.
+     *
+     * @param file
+     * @param delimiter
+     * @param columns
+     * @param threads
+     * @return
+     * @throws IOException
+     */
+    public static Data load(String file, char delimiter, String[] columns, int threads) throws IOException {
+
+        RandomAccessFile input = new RandomAccessFile(file, "r");
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+
+            // Read header
+            final FileChannel channel = input.getChannel();
+            String line = input.readLine();
+            if (line == null) {
+                throw new IOException("File is empty: " + file);
+            }
+            line = new String(line.getBytes("ISO-8859-1"), CHARSET);
+            if (line.indexOf('"') != -1) {
+                return loadQuoted(file, delimiter, columns);
+            }
+            String[] header = split(line, delimiter);
+            if (columns == null) {
+                columns = header;
+            }
+            final int[] projection;
+            try {
+                projection = getProjection(header, columns);
+            } catch (IllegalArgumentException e) {
+                throw new IOException(e.getMessage() + " in " + file);
+            }
+            final int width = columns.length;
+            final byte separator = (byte) delimiter;
+
+            // Split into chunks aligned to line boundaries
+            long start = input.getFilePointer();
+            long end = channel.size();
+            long size = Math.max(1L, Math.min(MAX_CHUNK_SIZE, (end - start) / (threads * CHUNKS_PER_THREAD)));
+            List<long[]> ranges = new ArrayList<long[]>();
+            while (start < end) {
+                long next = Math.min(end, align(channel, start + size, end));
+                ranges.add(new long[] { start, next });
+                start = next;
+            }
+
+            // Parse and encode
+            List<Future<Chunk>> futures = new ArrayList<Future<Chunk>>();
+            for (final long[] range : ranges) {
+                futures.add(executor.submit(new Callable<Chunk>() {
+                    @Override
+                    public Chunk call() throws IOException {
+                        return parse(channel, range[0], range[1], separator, projection, width);
+                    }
+                }));
+            }
+            final Chunk[] chunks = new Chunk[futures.size()];
+            for (int i = 0; i < chunks.length; i++) {
+                chunks[i] = get(futures.get(i));
+            }
+            for (Chunk chunk : chunks) {
+                if (chunk.quoted) {
+                    return loadQuoted(file, delimiter, columns);
+                }
+            }
+
+            // Merge dictionaries
+            String[][] dictionary = new String[width][];
+            final int[][][] mappings = new int[chunks.length][width][];
+            for (int column = 0; column < width; column++) {
+                Map<String, Integer> codes = new HashMap<String, Integer>();
+                List<String> values = new ArrayList<String>();
+                for (int i = 0; i < chunks.length; i++) {
+                    ChunkDictionary local = chunks[i].dictionaries[column];
+                    int[] mapping = new int[local.size];
+                    for (int code = 0; code < local.size; code++) {
+                        String value = new String(local.values[code], CHARSET);
+                        Integer global = codes.get(value);
+                        if (global == null) {
+                            global = values.size();
+                            codes.put(value, global);
+                            values.add(value);
+                        }
+                        mapping[code] = global;
+                    }
+                    mappings[i][column] = mapping;
+                    chunks[i].dictionaries[column] = null;
+                }
+                dictionary[column] = values.toArray(new String[values.size()]);
+            }
+
+            // Translate codes into the global code space
+            List<Future<Chunk>> translated = new ArrayList<Future<Chunk>>();
+            for (int i = 0; i < chunks.length; i++) {
+                final int index = i;
+                translated.add(executor.submit(new Callable<Chunk>() {
+                    @Override
+                    public Chunk call() {
+                        Chunk chunk = chunks[index];
+                        int[][] mapping = mappings[index];
+                        int[] codes = chunk.codes;
+                        for (int offset = 0; offset < chunk.rows * width; offset += width) {
+                            for (int column = 0; column < width; column++) {
+                                codes[offset + column] = mapping[column][codes[offset + column]];
+                            }
+                        }
+                        return chunk;
+                    }
+                }));
+            }
+            for (Future<Chunk> future : translated) {
+                get(future);
+            }
+
+            // Return
+            return Data.create(new EncodedIterator(columns.clone(), chunks, dictionary));
+
+        } finally {
+            executor.shutdownNow();
+            input.close();
+        }
+    }
+
+    /**
+     * Loads the given columns from the given file with the CSV parser of ARX, which supports
+     * quoted fields
+     *
+     * @param file
+     * @param delimiter
+     * @param columns
+     * @return
+     * @throws IOException
+     */
+    private static Data loadQuoted(String file, char delimiter, String[] columns) throws IOException {
+        if (columns == null) {
+            return Data.create(file, delimiter);
+        }
+        DataSource source = DataSource.createCSVSource(file, delimiter, true);
+        for (String column : columns) {
+            source.addColumn(column);
+        }
+        return Data.create(source);
+    }
+
+    /**
+     * Loads the given columns from the given file using the calling thread
+     *
+     * @param file
+     * @param delimiter
+     * @param columns
+     * @return
+     * @throws IOException
+     */
+    private static Data loadSequential(String file, char delimiter, String[] columns) throws IOException {
+
+        // Lines are parsed lazily, so quotes must be found beforehand
+        if (containsQuotes(file)) {
+            return loadQuoted(file, delimiter, columns);
+        }
+
+        // Read header
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), CHARSET), BUFFER_SIZE);
+        String line = reader.readLine();
+        if (line == null) {
+            reader.close();
+            throw new IOException("File is empty: " + file);
+        }
+
+        // Project
+        int[] projection;
+        try {
+            String[] header = split(line, delimiter);
+            if (columns == null) {
+                columns = header;
+            }
+            projection = getProjection(header, columns);
+        } catch (IllegalArgumentException e) {
+            reader.close();
+            throw new IOException(e.getMessage() + " in " + file);
+        }
+        try {
+            return Data.create(new ProjectingIterator(reader, delimiter, projection, columns.clone()));
+        } catch (RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the offset of the first line starting at or after the given position
+     *
+     * @param channel
+     * @param position
+     * @param end
+     * @return
+     * @throws IOException
+     */
+    private static long align(FileChannel channel, long position, long end) throws IOException {
+        if (position >= end) {
+            return end;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long offset = position - 1;
+        while (offset < end) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return end;
+    }
+
+    /**
+     * Returns whether the given file contains a quote
+     *
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    private static boolean containsQuotes(String file) throws IOException {
+        InputStream input = new FileInputStream(file);
+        try {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '"') {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } finally {
+            input.close();
+        }
+    }
+
+    /**
+     * Waits for the given future and rethrows its exception
+     *
+     * @param future
+     * @return
+     * @throws IOException
+     */
+    private static Chunk get(Future<Chunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Parses and encodes the lines within the given range of the file
+     *
+     * @param channel
+     * @param start
+     * @param end
+     * @param delimiter
+     * @param projection
+     * @param columns
+     * @return
+     * @throws IOException
+     */
+    private static Chunk parse(FileChannel channel,
+                               long start,
+                               long end,
+                               byte delimiter,
+                               int[] projection,
+                               int columns) throws IOException {
+
+        // Read
+        byte[] buffer = new byte[(int) (end - start)];
+        ByteBuffer wrapper = ByteBuffer.wrap(buffer);
+        while (wrapper.hasRemaining()) {
+            if (channel.read(wrapper, start + wrapper.position()) < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+
+        // Parse
+        Chunk chunk = new Chunk(columns);
+        int offset = 0;
+        while (offset < buffer.length) {
+
+            // Find end of line
+            int eol = offset;
+            boolean quoted = false;
+            while (eol < buffer.length && buffer[eol] != '\n') {
+                quoted |= buffer[eol] == '"';
+                eol++;
+            }
+            int next = eol + 1;
+            if (eol > offset && buffer[eol - 1] == '\r') {
+                eol--;
+            }
+            if (quoted) {
+                chunk.quoted = true;
+                return chunk;
+            }
+
+            // Reject empty lines
+            if (eol == offset) {
+                throw new IOException("Empty lines are not supported, found at byte " + (start + offset));
+            }
+
+            // Extract fields
+            chunk.ensureCapacity();
+            int base = chunk.rows * columns;
+            int field = 0;
+            int begin = offset;
+            while (field < projection.length) {
+                int stop = begin;
+                while (stop < eol && buffer[stop] != delimiter) {
+                    stop++;
+                }
+                int target = projection[field];
+                if (target != -1) {
+                    chunk.codes[base + target] = chunk.dictionaries[target].register(buffer, begin, stop - begin);
+                }
+                field++;
+                if (stop == eol) {
+                    break;
+                }
+                begin = stop + 1;
+            }
+            if (field < projection.length) {
+                throw new IOException("Too few fields in line: " + new String(buffer, offset, eol - offset, CHARSET));
+            }
+            chunk.rows++;
+            offset = next;
+        }
+        return chunk;
+    }
+
+    /**
+     * Returns an array mapping the fields of the header to indices in the output, -1 means skip.
+     * The array is truncated after the last field that needs to be extracted.
+     *
+     * @param header
+     * @param columns
+     * @return
+     */
+    static int[] getProjection(String[] header, String[] columns) {
+        int[] projection = new int[header.length];
+        Arrays.fill(projection, -1);
+        int length = 0;
+        for (int i = 0; i < columns.length; i++) {
+            int index = Arrays.asList(header).indexOf(columns[i]);
+            if (index == -1) {
+                throw new IllegalArgumentException("Unknown attribute: " + columns[i]);
+            }
+            projection[index] = i;
+            length = Math.max(length, index + 1);
+        }
+        return Arrays.copyOf(projection, length);
+    }
+
+    /**
+     * Extracts the projected fields from the given line
+     *
+     * @param line
+     * @param delimiter
+     * @param projection
+     * @param columns
+     * @return
+     */
+    static String[] project(String line, char delimiter, int[] projection, int columns) {
+        if (line.indexOf('"') != -1) {
+            throw new IllegalArgumentException("Quoted fields are not supported: " + line);
+        }
+        String[] result = new String[columns];
+        int field = 0;
+        int start = 0;
+        int length = line.length();
+        while (field < projection.length) {
+            int end = line.indexOf(delimiter, start);
+            if (end == -1) {
+                end = length;
+            }
+            if (projection[field] != -1) {
+                result[projection[field]] = line.substring(start, end);
+            }
+            field++;
+            if (end == length) {
+                break;
+            }
+            start = end + 1;
+        }
+        if (field < projection.length) {
+            throw new IllegalArgumentException("Too few fields in line: " + line);
+        }
+        return result;
+    }
+
+    /**
+     * Splits the given line into all of its fields
+     *
+     * @param line
+     * @param delimiter
+     * @return
+     */
+    private static String[] split(String line, char delimiter) {
+        int count = 1;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == delimiter) {
+                count++;
+            }
+        }
+        int[] projection = new int[count];
+        for (int i = 0; i < count; i++) {
+            projection[i] = i;
+        }
+        return project(line, delimiter, projection, count);
+    }
+}
@@ -27,9 +27,14 @@ import org.deidentifier.arx.BenchmarkSetup.BenchmarkDataset;
 import org.deidentifier.arx.BenchmarkSetup.BenchmarkPrivacyModel;
 import org.deidentifier.arx.BenchmarkSetup.BenchmarkQualityMeasure;
 import org.deidentifier.arx.algorithm.AlgorithmBenchmark;
+import org.deidentifier.arx.algorithm.AlgorithmCheckRecord;
+import org.deidentifier.arx.algorithm.AlgorithmCounter;
 import org.deidentifier.arx.algorithm.AlgorithmFlash;
+import org.deidentifier.arx.algorithm.AlgorithmHybrid;
 import org.deidentifier.arx.algorithm.AlgorithmLightning;
 import org.deidentifier.arx.algorithm.AlgorithmMinimal;
+import org.deidentifier.arx.algorithm.AlgorithmProfile;
+import org.deidentifier.arx.algorithm.AlgorithmTrackRecord;
 import org.deidentifier.arx.algorithm.FLASHStrategy;
 import org.deidentifier.arx.framework.check.NodeChecker;
 import org.deidentifier.arx.framework.check.NodeChecker.Result;
@@ -37,11 +42,8 @@ import org.deidentifier.arx.framework.check.distribution.DistributionAggregateFu
 import org.deidentifier.arx.framework.data.DataManager;
 import org.deidentifier.arx.framework.data.Dictionary;
 import org.deidentifier.arx.framework.lattice.SolutionSpace;
-import org.deidentifier.arx.metric.v2.ILMultiDimensionalArithmeticMean;
-import org.deidentifier.arx.metric.v2.ILMultiDimensionalGeometricMean;
-import org.deidentifier.arx.metric.v2.ILMultiDimensionalSum;
-
-import cern.colt.list.DoubleArrayList;
+import org.deidentifier.arx.framework.lattice.Transformation;
+import org.deidentifier.arx.metric.v2.InformationLossCodec;
 
 /**
  * Creates a benchmarking environment consisting of a solution space, 
@@ -51,32 +53,110 @@ import cern.colt.list.DoubleArrayList;
  */
 public class BenchmarkEnvironment {
 
+    /**
+     * The phases of one benchmark run
+     * @author Fabian Prasser
+     */
+    public static enum BenchmarkPhase {
+        LOADING {
+            @Override
+            public String toString() {
+                return "Loading";
+            }
+        },
+        ENCODING {
+            @Override
+            public String toString() {
+                return "Encoding";
+            }
+        },
+        LATTICE {
+            @Override
+            public String toString() {
+                return "Lattice";
+            }
+        },
+        CHECKER {
+            @Override
+            public String toString() {
+                return "Checker";
+            }
+        },
+        SEARCH {
+            @Override
+            public String toString() {
+                return "Search";
+            }
+        },
+        CONVERSION {
+            @Override
+            public String toString() {
+                return "Conversion";
+            }
+        }
+    }
+
     /**
      * The result of one benchmark run
      * @author Fabian Prasser
      */
     public static final class BenchmarkResults {
 
-        /** Execution time */
-        public final double          executionTime;
+        /** Execution time of the search in milliseconds */
+        public final double               executionTime;
         /** Information loss: -1 means "no result" */
-        public final double          informationLoss;
-        /** Discovery time */
-        public final double          discoveryTime;
+        public final double               informationLoss;
+        /** Discovery time in milliseconds */
+        public final double               discoveryTime;
         /** Track record */
-        public final DoubleArrayList trackRecord;
+        public final AlgorithmTrackRecord trackRecord;
+        /** Durations of the phases in nanoseconds, indexed by ordinal */
+        public final long[]               phases;
+        /** Counters of the search, indexed by ordinal */
+        public final long[]               counters;
+        /** Exploration profile, null if not recorded */
+        public final AlgorithmProfile     profile;
+        /** Whether the search has not been terminated by its time limit */
+        public final boolean              complete;
 
         /**
          * Creates a new instance
          * @param executionTime
          * @param informationLoss
          * @param discoveryTime
+         * @param trackRecord
+         * @param phases
+         * @param counters
+         * @param profile
+         * @param complete
          */
-        public BenchmarkResults(double executionTime, double informationLoss, double discoveryTime, DoubleArrayList trackRecord) {
+        public BenchmarkResults(double executionTime, double informationLoss, double discoveryTime, AlgorithmTrackRecord trackRecord, long[] phases, long[] counters, AlgorithmProfile profile, boolean complete) {
             this.executionTime = executionTime;
             this.informationLoss = informationLoss;
             this.discoveryTime = discoveryTime;
             this.trackRecord = trackRecord;
+            this.phases = phases;
+            this.counters = counters;
+            this.profile = profile;
+            this.complete = complete;
+        }
+
+        /**
+         * Returns the value of the given counter
+         * @param counter
+         * @return
+         */
+        public long getCount(AlgorithmCounter counter) {
+            return counters[counter.ordinal()];
+        }
+
+        /**
+         * Returns the duration of the given phase in milliseconds
+         * @param phase
+         * @return
+         */
+        public double getTime(BenchmarkPhase phase) {
+            return phases[phase.ordinal()] / 1000000d;
         }
     }
     
@@ -90,7 +170,8 @@ public class BenchmarkEnvironment {
     private static double CONST_SNAPSHOT_SIZE_2 = 0.8d;
 
     /**
-     * Internal method
+     * Internal method. The results of checks are not added to the cache, as this would influence
+     * execution times.
      * 
      * @param algorithm
      * @param dataset
@@ -107,60 +188,106 @@ public class BenchmarkEnvironment {
                                                        BenchmarkPrivacyModel criterion,
                                                        int timeLimit,
                                                        double suppressionLimit) throws IOException {
+        return getBenchmarkResults(algorithm, dataset, measure, criterion, timeLimit, suppressionLimit, false);
+    }
+
+    /**
+     * Internal method
+     * 
+     * @param algorithm
+     * @param dataset
+     * @param measure
+     * @param criterion
+     * @param timeLimit
+     * @param suppressionLimit
+     * @param record Whether to add the results of checks to the cache, must be false when measuring
+     *               execution times or when the results depend on a time limit
+     * @return
+     * @throws IOException
+     */
+    public static BenchmarkResults getBenchmarkResults(BenchmarkAlgorithm algorithm,
+                                                       BenchmarkDataset dataset,
+                                                       BenchmarkQualityMeasure measure,
+                                                       BenchmarkPrivacyModel criterion,
+                                                       int timeLimit,
+                                                       double suppressionLimit,
+                                                       boolean record) throws IOException {
 
         // Create environment
-        BenchmarkEnvironment environment = new BenchmarkEnvironment(algorithm, dataset, measure, criterion, suppressionLimit);
+        BenchmarkEnvironment environment = create(algorithm, dataset, measure, criterion, suppressionLimit);
 
         // Create an algorithm instance
-        AlgorithmBenchmark implementation;
-        switch (algorithm) {
-        case DATAFLY:
-        case IGREEDY:
-            implementation = new AlgorithmMinimal(environment.solutions, environment.checker);
-            break;
-        case FLASH:
-            FLASHStrategy strategy = new FLASHStrategy(environment.solutions, environment.manager.getHierarchies());
-            implementation = new AlgorithmFlash(environment.solutions, environment.checker, strategy);
-            break;
-        case LIGHTNIG_MINIMAL:
-            implementation = new AlgorithmLightning(environment.solutions, environment.checker, 0);
-            break;
-        case LIGHTNING:
-            implementation = new AlgorithmLightning(environment.solutions, environment.checker, timeLimit);
-            break;
-        default:
-            throw new RuntimeException("Invalid algorithm");
+        AlgorithmBenchmark implementation = environment.getAlgorithm(algorithm, timeLimit);
+
+        // Record checks for the cache, if the quality model of the search is the given one
+        AlgorithmCheckRecord checkRecord = null;
+        if (record && BenchmarkCheckCache.FOLDER != null && algorithm != BenchmarkAlgorithm.IGREEDY && algorithm != BenchmarkAlgorithm.DATAFLY) {
+            checkRecord = new AlgorithmCheckRecord();
+            implementation.setCheckRecord(checkRecord);
         }
 
         // Execute
-        long time = System.currentTimeMillis();
-        implementation.traverse();
-        time = System.currentTimeMillis() - time;
+        String cell = algorithm + "/" + dataset + "/" + measure + "/" + criterion + "/" + suppressionLimit;
+        BenchmarkMonitor monitor = BenchmarkMonitor.register(cell, implementation, timeLimit);
+        long[] phases = environment.phases;
+        long time = System.nanoTime();
+        try {
+            implementation.traverse();
+        } finally {
+            if (monitor != null) {
+                monitor.unregister();
+            }
+        }
+        phases[BenchmarkPhase.SEARCH.ordinal()] = System.nanoTime() - time;
+        double execution = phases[BenchmarkPhase.SEARCH.ordinal()] / 1000000d;
         double discovery = implementation.getDiscoveryTime();
-        DoubleArrayList trackRecord = implementation.getTrackRecord();
+        AlgorithmTrackRecord trackRecord = implementation.getTrackRecord();
+        long[] counters = implementation.getCounters();
+
+        // Share results of checks with other algorithms
+        if (checkRecord != null) {
+            BenchmarkCheckCache cache = environment.getCheckCache(dataset, measure, criterion, suppressionLimit);
+            try {
+                cache.putAll(checkRecord);
+            } finally {
+                cache.close();
+            }
+        }
 
         // Define the resulting information loss
         double iloss = -1;
         
         // If no result was found, return immediately
+        boolean complete = implementation.isComplete();
         if (implementation.getGlobalOptimum() == null) {
-            return new BenchmarkResults(time, iloss, discovery, trackRecord); 
+            return new BenchmarkResults(execution, iloss, discovery, trackRecord, phases, counters, implementation.getProfile(), complete); 
         }
+        time = System.nanoTime();
 
         // Potentially convert results
         if (algorithm == BenchmarkAlgorithm.IGREEDY || algorithm == BenchmarkAlgorithm.DATAFLY) {
             
-            // If IGreedy or DataFly, compute information loss in terms of the given quality model
-            int[] optimum = implementation.getGlobalOptimum().getGeneralization();
-            iloss = getInformationLoss(dataset, measure, criterion, suppressionLimit, optimum);
+            // If IGreedy or DataFly, compute information loss of all optima in terms of the given quality model
+            int[][] optima = new int[trackRecord.size()][];
+            for (int i = 0; i < optima.length; i++) {
+                optima[i] = environment.solutions.getTransformation(implementation.getTrackedOptimum(i)).getGeneralization();
+            }
+            double[] losses = getInformationLoss(dataset, measure, criterion, suppressionLimit, optima);
+            AlgorithmTrackRecord converted = new AlgorithmTrackRecord(optima.length);
+            for (int i = 0; i < optima.length; i++) {
+                converted.add(trackRecord.getTime(i), trackRecord.getChecks(i), losses[i]);
+            }
+            trackRecord = converted;
+            iloss = losses[losses.length - 1];
         } else {
             
             // If lightning or flash
-            iloss = Double.valueOf( implementation.getGlobalOptimum().getInformationLoss().toString());
+            iloss = InformationLossCodec.encode(implementation.getGlobalOptimum().getInformationLoss());
         }
         
         // Return result
-        return new BenchmarkResults(time, iloss, discovery, trackRecord);
+        phases[BenchmarkPhase.CONVERSION.ordinal()] = System.nanoTime() - time;
+        return new BenchmarkResults(execution, iloss, discovery, trackRecord, phases, counters, implementation.getProfile(), complete);
     }
 
     /**
@@ -178,85 +305,140 @@ public class BenchmarkEnvironment {
                                                                 double suppressionLimit) throws IOException {
 
         // Create environment
-        BenchmarkEnvironment environment = new BenchmarkEnvironment(BenchmarkAlgorithm.FLASH, dataset, measure, criterion, suppressionLimit);
+        BenchmarkEnvironment environment = create(BenchmarkAlgorithm.FLASH, dataset, measure, criterion, suppressionLimit);
+        BenchmarkCheckCache cache = environment.getCheckCache(dataset, measure, criterion, suppressionLimit);
         
         // For each transformation
         double min = Double.MAX_VALUE;
         double max = - Double.MAX_VALUE;
         
-        for (int i = 0; i <= environment.solutions.getTop().getIdentifier(); i++) {
-            Result result = environment.checker.check(environment.solutions.getTransformation(i));
-            if (result.privacyModelFulfilled) {
-                double value = 0d;
-                if (result.informationLoss instanceof ILMultiDimensionalGeometricMean) {
-                    value = Double.valueOf(((ILMultiDimensionalGeometricMean) result.informationLoss).toString());
-                } else if (result.informationLoss instanceof ILMultiDimensionalArithmeticMean) {
-                    value = Double.valueOf(((ILMultiDimensionalArithmeticMean) result.informationLoss).toString());
-                } else if (result.informationLoss instanceof ILMultiDimensionalSum) {
-                    value = Double.valueOf(((ILMultiDimensionalSum) result.informationLoss).toString());
-                } else {
-                    value = (Double) result.informationLoss.getValue();
+        try {
+            for (int i = 0; i <= environment.solutions.getTop().getIdentifier(); i++) {
+                
+                // Use cached results
+                if (cache != null && cache.contains(i)) {
+                    if (cache.isAnonymous(i)) {
+                        min = Math.min(min, cache.getInformationLoss(i));
+                        max = Math.max(max, cache.getInformationLoss(i));
+                    }
+                    continue;
+                }
+                
+                Result result = environment.checker.check(environment.solutions.getTransformation(i));
+                double value = Double.NaN;
+                if (result.privacyModelFulfilled) {
+                    value = InformationLossCodec.encode(result.informationLoss);
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
                 }
-                min = Math.min(min, value);
-                max = Math.max(max, value);
+                if (cache != null) {
+                    cache.put(i, result.privacyModelFulfilled, value);
+                }
+            }
+        } finally {
+            if (cache != null) {
+                cache.close();
             }
         }
         return new double[]{min, max};
     }
     
     /**
-     * Returns the information loss for the given transformation
+     * Returns the information loss for the given transformations
      * @param dataset
      * @param measure
      * @param criterion
      * @param suppressionLimit
-     * @param transformation
+     * @param transformations
      * @return
      * @throws IOException 
      */
-    private static double getInformationLoss(BenchmarkDataset dataset,
-                                             BenchmarkQualityMeasure measure,
-                                             BenchmarkPrivacyModel criterion,
-                                             double suppressionLimit,
-                                             int[] transformation) throws IOException {
-
-        BenchmarkEnvironment environment = new BenchmarkEnvironment(BenchmarkAlgorithm.FLASH, dataset, measure, criterion, suppressionLimit);
-        return Double.valueOf(environment.checker.check(environment.solutions.getTransformation(transformation)).informationLoss.toString());
-    }
-
-    /** Variable*/
-    private final SolutionSpace solutions;
-
-    /** Variable*/
-    private final NodeChecker checker;
+    private static double[] getInformationLoss(BenchmarkDataset dataset,
+                                               BenchmarkQualityMeasure measure,
+                                               BenchmarkPrivacyModel criterion,
+                                               double suppressionLimit,
+                                               int[][] transformations) throws IOException {
 
-    /** Variable*/
-    private final DataManager manager;
+        BenchmarkEnvironment environment = create(BenchmarkAlgorithm.FLASH, dataset, measure, criterion, suppressionLimit);
+        BenchmarkCheckCache cache = environment.getCheckCache(dataset, measure, criterion, suppressionLimit);
+        double[] result = new double[transformations.length];
+        try {
+            for (int i = 0; i < transformations.length; i++) {
+                Transformation node = environment.solutions.getTransformation(transformations[i]);
+                long identifier = node.getIdentifier();
+                if (cache != null && cache.contains(identifier)) {
+                    result[i] = cache.getInformationLoss(identifier);
+                    continue;
+                }
+                Result check = environment.checker.check(node);
+                result[i] = InformationLossCodec.encode(check.informationLoss);
+                if (cache != null) {
+                    cache.put(identifier, check.privacyModelFulfilled, result[i]);
+                }
+            }
+        } finally {
+            if (cache != null) {
+                cache.close();
+            }
+        }
+        return result;
+    }
 
     /**
-     * Creates a new instance
+     * Creates a new instance for a benchmark dataset
      * @param algorithm
      * @param dataset
      * @param measure
      * @param criterion
      * @param suppressionLimit
+     * @return
      * @throws IOException
      */
-    private BenchmarkEnvironment(BenchmarkAlgorithm algorithm,
-                                BenchmarkDataset dataset,
-                                BenchmarkQualityMeasure measure,
-                                BenchmarkPrivacyModel criterion,
-                                double suppressionLimit) throws IOException {
+    private static BenchmarkEnvironment create(BenchmarkAlgorithm algorithm,
+                                               BenchmarkDataset dataset,
+                                               BenchmarkQualityMeasure measure,
+                                               BenchmarkPrivacyModel criterion,
+                                               double suppressionLimit) throws IOException {
         
         // Prepare
+        long time = System.nanoTime();
         Data data = BenchmarkSetup.getData(dataset, criterion);
         ARXConfiguration config = BenchmarkSetup.getConfiguration(dataset,
                                                                   measure,
                                                                   algorithm,
                                                                   criterion);
         config.setMaxOutliers(suppressionLimit);
+        time = System.nanoTime() - time;
+        BenchmarkEnvironment environment = new BenchmarkEnvironment(data, config);
+        environment.phases[BenchmarkPhase.LOADING.ordinal()] = time;
+        return environment;
+    }
+
+    /** Variable*/
+    private SolutionSpace          solutions;
+
+    /** Variable*/
+    private NodeChecker            checker;
+
+    /** Variable*/
+    private final DataManager      manager;
+
+    /** Variable*/
+    private final ARXConfiguration config;
+
+    /** Durations of the phases in nanoseconds */
+    private final long[]           phases = new long[BenchmarkPhase.values().length];
+
+    /**
+     * Creates a new instance for the given data and configuration
+     * @param data
+     * @param config
+     */
+    public BenchmarkEnvironment(Data data, ARXConfiguration config) {
 
         // Initialize
+        long time = System.nanoTime();
+        this.config = config;
         DataHandle handle = data.getHandle();
         handle.getDefinition().materializeHierarchies(handle);
         handle.getRegistry().reset();
@@ -281,24 +463,108 @@ public class BenchmarkEnvironment {
 
         // Initialize
         config.initialize(manager);
+        phases[BenchmarkPhase.ENCODING.ordinal()] = System.nanoTime() - time;
 
         // Build or clean the lattice
+        time = System.nanoTime();
         solutions = new SolutionSpace(manager.getHierarchiesMinLevels(),
                                                         manager.getHierarchiesMaxLevels());
+        phases[BenchmarkPhase.LATTICE.ordinal()] = System.nanoTime() - time;
 
         // Build a node checker
-        checker = new NodeChecker(manager,
-                                              config.getMetric(),
-                                              config.getInternalConfiguration(),
-                                              CONST_HISTORY_SIZE,
-                                              CONST_SNAPSHOT_SIZE_1,
-                                              CONST_SNAPSHOT_SIZE_2,
-                                              solutions);
+        time = System.nanoTime();
+        checker = createNodeChecker();
 
         // Initialize the metric
         config.getMetric().initialize(definition,
                                       manager.getDataGeneralized(),
                                       manager.getHierarchies(),
                                       config);
+        phases[BenchmarkPhase.CHECKER.ordinal()] = System.nanoTime() - time;
+    }
+
+    /**
+     * Creates an instance of the given algorithm operating on this environment
+     * @param algorithm
+     * @param timeLimit
+     * @return
+     */
+    public AlgorithmBenchmark getAlgorithm(BenchmarkAlgorithm algorithm, int timeLimit) {
+        switch (algorithm) {
+        case DATAFLY:
+        case IGREEDY:
+            return new AlgorithmMinimal(solutions, checker);
+        case FLASH:
+            FLASHStrategy strategy = new FLASHStrategy(solutions, manager.getHierarchies());
+            return new AlgorithmFlash(solutions, checker, strategy);
+        case LIGHTNIG_MINIMAL:
+            return new AlgorithmLightning(solutions, checker, 0);
+        case LIGHTNING:
+            return new AlgorithmLightning(solutions, checker, timeLimit);
+        case HYBRID:
+            return new AlgorithmHybrid(solutions, checker, timeLimit, new FLASHStrategy(solutions, manager.getHierarchies()));
+        default:
+            throw new RuntimeException("Invalid algorithm");
+        }
+    }
+
+    /**
+     * Returns the node checker
+     * @return
+     */
+    public NodeChecker getNodeChecker() {
+        return checker;
+    }
+
+    /**
+     * Returns the solution space
+     * @return
+     */
+    public SolutionSpace getSolutionSpace() {
+        return solutions;
+    }
+
+    /**
+     * Discards the state of previous searches by creating a new solution space and a new node
+     * checker. The encoded data and the quality model are reused.
+     */
+    public void reset() {
+        solutions = new SolutionSpace(manager.getHierarchiesMinLevels(),
+                                      manager.getHierarchiesMaxLevels());
+        checker = createNodeChecker();
+    }
+
+    /**
+     * Creates a node checker for the current solution space
+     * @return
+     */
+    private NodeChecker createNodeChecker() {
+        return new NodeChecker(manager,
+                               config.getMetric(),
+                               config.getInternalConfiguration(),
+                               CONST_HISTORY_SIZE,
+                               CONST_SNAPSHOT_SIZE_1,
+                               CONST_SNAPSHOT_SIZE_2,
+                               solutions);
+    }
+
+    /**
+     * Returns the check cache for this environment, null if caching is disabled
+     * @param dataset
+     * @param measure
+     * @param criterion
+     * @param suppressionLimit
+     * @return
+     * @throws IOException
+     */
+    private BenchmarkCheckCache getCheckCache(BenchmarkDataset dataset,
+                                              BenchmarkQualityMeasure measure,
+                                              BenchmarkPrivacyModel criterion,
+                                              double suppressionLimit) throws IOException {
+        return BenchmarkCheckCache.open(solutions.getTop().getIdentifier() + 1,
+                                        dataset.toString(),
+                                        measure.toString(),
+                                        criterion.toString(),
+                                        String.valueOf(suppressionLimit));
     }
 }
@@ -0,0 +1,388 @@
+/*
+ * Source code of the experiments from our 2016 paper 
+ * "Lightning: Utility-driven anonymization of high-dimensional data"
+ *      
+ * Copyright (C) 2015 Fabian Prasser, Raffael Bild, Johanna Eicher, Helmut Spengler, Florian Kohlmayer
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.ProcessBuilder.Redirect;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.deidentifier.arx.BenchmarkEnvironment.BenchmarkResults;
+import org.deidentifier.arx.BenchmarkSetup.BenchmarkAlgorithm;
+import org.deidentifier.arx.BenchmarkSetup.BenchmarkDataset;
+import org.deidentifier.arx.BenchmarkSetup.BenchmarkPrivacyModel;
+import org.deidentifier.arx.BenchmarkSetup.BenchmarkQualityMeasure;
+import org.deidentifier.arx.algorithm.AlgorithmProfile;
+import org.deidentifier.arx.algorithm.AlgorithmTrackRecord;
+
+import cern.colt.list.DoubleArrayList;
+
+/**
+ * Executes benchmark runs in a freshly forked JVM, so that JIT state, heap fragmentation and
+ * caches left behind by previous runs do not influence the measurements. Before measuring,
+ * warmup runs are performed until the execution times have reached a steady state, also if
+ * runs are performed in this JVM. Runs are
+ * then repeated until the confidence interval of the median execution time is narrow enough,
+ * or until the time budget has been used up. Results are streamed back over the standard
+ * output of the forked JVM. The following system properties are supported:<br>
+ * <br>
+ * - <code>benchmark.fork</code>: whether timing experiments should be performed in forked JVMs<br>
+ * - <code>benchmark.fork.jvmArgs</code>: arguments for the forked JVMs, defaults to the arguments of this JVM.
+ *   System properties starting with <code>benchmark.</code> are always forwarded, except for the cache<br>
+ * - <code>benchmark.warmup.min</code>: minimal number of warmup runs<br>
+ * - <code>benchmark.warmup.max</code>: maximal number of warmup runs<br>
+ * - <code>benchmark.warmup.tolerance</code>: maximal relative deviation of the last warmup runs<br>
+ * - <code>benchmark.repetitions.min</code>: minimal number of runs<br>
+ * - <code>benchmark.repetitions.max</code>: maximal number of runs<br>
+ * - <code>benchmark.repetitions.error</code>: relative half width of the confidence interval of the median at which to stop<br>
+ * - <code>benchmark.repetitions.budget</code>: time budget for all runs of one measurement in milliseconds, including warmup runs<br>
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkFork {
+
+    /** Whether to fork */
+    public static final boolean  FORK               = Boolean.getBoolean("benchmark.fork");
+
+    /** Minimal number of warmup runs */
+    private static final int     WARMUP_MIN         = Integer.getInteger("benchmark.warmup.min", 1);
+
+    /** Maximal number of warmup runs */
+    private static final int     WARMUP_MAX         = Integer.getInteger("benchmark.warmup.max", 5);
+
+    /** Maximal relative deviation between execution times in the steady state */
+    private static final double  WARMUP_TOLERANCE   = Double.parseDouble(System.getProperty("benchmark.warmup.tolerance", "0.05"));
+
+    /** Maximal number of runs considered when detecting the steady state */
+    private static final int     WARMUP_WINDOW      = 3;
+
+    /** Minimal number of runs */
+    private static final int     REPETITIONS_MIN    = Integer.getInteger("benchmark.repetitions.min", 3);
+
+    /** Maximal number of runs */
+    private static final int     REPETITIONS_MAX    = Integer.getInteger("benchmark.repetitions.max", 50);
+
+    /** Relative half width of the confidence interval of the median at which to stop */
+    private static final double  REPETITIONS_ERROR  = Double.parseDouble(System.getProperty("benchmark.repetitions.error", "0.02"));
+
+    /** Time budget for all runs of one measurement in milliseconds, including warmup runs */
+    private static final long    REPETITIONS_BUDGET = Long.getLong("benchmark.repetitions.budget", 300 * 1000);
+
+    /** Prefix of lines containing results */
+    private static final String  PREFIX             = "@result;";
+
+    /** Charset for communicating with the forked JVM */
+    private static final Charset CHARSET            = Charset.forName("UTF-8");
+
+    /**
+     * Performs runs until the policy for repetitions is fulfilled, either in a forked JVM or in
+     * this JVM, depending on the configuration
+     *
+     * @param algorithm
+     * @param dataset
+     * @param measure
+     * @param criterion
+     * @param timeLimit
+     * @param suppressionLimit
+     * @return
+     * @throws IOException
+     */
+    public static BenchmarkResults[] getBenchmarkResults(BenchmarkAlgorithm algorithm,
+                                                         BenchmarkDataset dataset,
+                                                         BenchmarkQualityMeasure measure,
+                                                         BenchmarkPrivacyModel criterion,
+                                                         int timeLimit,
+                                                         double suppressionLimit) throws IOException {
+
+        // In this JVM
+        if (!FORK) {
+            long start = System.currentTimeMillis();
+            warmup(algorithm, dataset, measure, criterion, timeLimit, suppressionLimit);
+            List<BenchmarkResults> results = new ArrayList<BenchmarkResults>();
+            BenchmarkTimes times = new BenchmarkTimes();
+            while (!isDone(times, System.currentTimeMillis() - start)) {
+                BenchmarkResults result = BenchmarkEnvironment.getBenchmarkResults(algorithm, dataset, measure, criterion, timeLimit, suppressionLimit);
+                times.add(result.executionTime);
+                results.add(result);
+            }
+            return results.toArray(new BenchmarkResults[results.size()]);
+        }
+
+        // Prepare command
+        List<String> command = new ArrayList<String>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.addAll(getJVMArguments());
+        command.add("-Dbenchmark.repetitions.min=" + REPETITIONS_MIN);
+        command.add("-Dbenchmark.repetitions.max=" + REPETITIONS_MAX);
+        command.add("-Dbenchmark.repetitions.error=" + REPETITIONS_ERROR);
+        command.add("-Dbenchmark.repetitions.budget=" + REPETITIONS_BUDGET);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(BenchmarkFork.class.getName());
+        command.add(algorithm.name());
+        command.add(dataset.name());
+        command.add(measure.name());
+        command.add(criterion.name());
+        command.add(String.valueOf(timeLimit));
+        command.add(String.valueOf(suppressionLimit));
+
+        // Start
+        ProcessBuilder builder = new ProcessBuilder(command);
+        builder.redirectError(Redirect.INHERIT);
+        Process process = builder.start();
+
+        // Collect results and forward all other output
+        List<BenchmarkResults> results = new ArrayList<BenchmarkResults>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), CHARSET));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(PREFIX)) {
+                    results.add(parse(line.substring(PREFIX.length())));
+                } else {
+                    System.out.println(line);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+
+        // Check
+        int status;
+        try {
+            status = process.waitFor();
+        } catch (InterruptedException e) {
+            process.destroy();
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+        if (status != 0 || results.isEmpty()) {
+            throw new IOException("Forked JVM failed with status " + status + " after " + results.size() + " runs");
+        }
+        return results.toArray(new BenchmarkResults[results.size()]);
+    }
+
+    /**
+     * Entry point of the forked JVM
+     * @param args
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+
+        // Parse
+        BenchmarkAlgorithm algorithm = BenchmarkAlgorithm.valueOf(args[0]);
+        BenchmarkDataset dataset = BenchmarkDataset.valueOf(args[1]);
+        BenchmarkQualityMeasure measure = BenchmarkQualityMeasure.valueOf(args[2]);
+        BenchmarkPrivacyModel criterion = BenchmarkPrivacyModel.valueOf(args[3]);
+        int timeLimit = Integer.parseInt(args[4]);
+        double suppressionLimit = Double.parseDouble(args[5]);
+
+        // Warmup until steady state
+        long start = System.currentTimeMillis();
+        warmup(algorithm, dataset, measure, criterion, timeLimit, suppressionLimit);
+
+        // Measure
+        BenchmarkTimes measured = new BenchmarkTimes();
+        while (!isDone(measured, System.currentTimeMillis() - start)) {
+            BenchmarkResults result = BenchmarkEnvironment.getBenchmarkResults(algorithm, dataset, measure, criterion, timeLimit, suppressionLimit);
+            measured.add(result.executionTime);
+            System.out.println(PREFIX + toString(result));
+            System.out.flush();
+        }
+    }
+
+    /**
+     * Returns the arguments for the forked JVM, followed by all system properties of this
+     * JVM which configure the benchmark. The cache is never used when measuring execution times.
+     * @return
+     */
+    private static List<String> getJVMArguments() {
+        List<String> result = new ArrayList<String>();
+        String configured = System.getProperty("benchmark.fork.jvmArgs");
+        if (configured != null) {
+            for (String argument : configured.trim().split("\\s+")) {
+                if (!argument.isEmpty() && !argument.startsWith("-Dbenchmark.cache=")) {
+                    result.add(argument);
+                }
+            }
+        } else {
+            for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+                // Debuggers and agents can not be attached twice
+                if (!argument.startsWith("-agentlib") && !argument.startsWith("-javaagent") && !argument.startsWith("-Xrunjdwp") &&
+                    !argument.startsWith("-Dbenchmark.cache=")) {
+                    result.add(argument);
+                }
+            }
+        }
+        for (String property : System.getProperties().stringPropertyNames()) {
+            if (property.startsWith("benchmark.") && !property.equals("benchmark.cache")) {
+                result.add("-D" + property + "=" + System.getProperty(property));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether no further runs should be performed. This is the case if the confidence interval
+     * of the median is narrow enough or if the next run is expected to exceed the time budget.
+     * @param times
+     * @param elapsed
+     * @return
+     */
+    private static boolean isDone(BenchmarkTimes times, long elapsed) {
+        if (times.size() >= REPETITIONS_MAX) {
+            return true;
+        } else if (times.size() < REPETITIONS_MIN) {
+            return false;
+        } else if (times.getRelativeError() <= REPETITIONS_ERROR) {
+            return true;
+        } else {
+            return elapsed + times.getMedian() > REPETITIONS_BUDGET;
+        }
+    }
+
+    /**
+     * Returns whether the last execution times deviate by no more than the tolerance
+     * @param times
+     * @return
+     */
+    private static boolean isSteady(DoubleArrayList times) {
+        if (times.size() < 2) {
+            return false;
+        }
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+        for (int i = Math.max(0, times.size() - WARMUP_WINDOW); i < times.size(); i++) {
+            min = Math.min(min, times.getQuick(i));
+            max = Math.max(max, times.getQuick(i));
+        }
+        return max - min <= WARMUP_TOLERANCE * max;
+    }
+
+    /**
+     * Parses a result
+     * @param line
+     * @return
+     */
+    private static BenchmarkResults parse(String line) {
+        String[] fields = line.split(";", -1);
+        AlgorithmTrackRecord trackRecord = new AlgorithmTrackRecord();
+        if (!fields[5].isEmpty()) {
+            String[] values = fields[5].split(",");
+            for (int i = 0; i < values.length; i += 3) {
+                trackRecord.add(Long.parseLong(values[i]), Long.parseLong(values[i + 1]), Double.parseDouble(values[i + 2]));
+            }
+        }
+        return new BenchmarkResults(Double.parseDouble(fields[0]),
+                                    Double.parseDouble(fields[1]),
+                                    Double.parseDouble(fields[2]),
+                                    trackRecord,
+                                    parseLongs(fields[3]),
+                                    parseLongs(fields[4]),
+                                    fields[6].isEmpty() ? null : new AlgorithmProfile(parseLongs(fields[6])),
+                                    Boolean.parseBoolean(fields[7]));
+    }
+
+    /**
+     * Parses a comma-separated list of longs
+     * @param field
+     * @return
+     */
+    private static long[] parseLongs(String field) {
+        String[] values = field.split(",");
+        long[] result = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = Long.parseLong(values[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Serializes a result
+     * @param result
+     * @return
+     */
+    private static String toString(BenchmarkResults result) {
+        StringBuilder builder = new StringBuilder();
+        builder.append(result.executionTime).append(';');
+        builder.append(result.informationLoss).append(';');
+        builder.append(result.discoveryTime).append(';');
+        toString(builder, result.phases);
+        builder.append(';');
+        toString(builder, result.counters);
+        builder.append(';');
+        for (int i = 0; i < result.trackRecord.size(); i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(result.trackRecord.getTime(i)).append(',');
+            builder.append(result.trackRecord.getChecks(i)).append(',');
+            builder.append(result.trackRecord.getUtility(i));
+        }
+        builder.append(';');
+        if (result.profile != null) {
+            toString(builder, result.profile.toArray());
+        }
+        builder.append(';');
+        builder.append(result.complete);
+        return builder.toString();
+    }
+
+    /**
+     * Serializes a comma-separated list of longs
+     * @param builder
+     * @param values
+     */
+    private static void toString(StringBuilder builder, long[] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(values[i]);
+        }
+    }
+
+    /**
+     * Performs warmup runs until the execution times have reached a steady state
+     * @param algorithm
+     * @param dataset
+     * @param measure
+     * @param criterion
+     * @param timeLimit
+     * @param suppressionLimit
+     * @throws IOException
+     */
+    private static void warmup(BenchmarkAlgorithm algorithm,
+                               BenchmarkDataset dataset,
+                               BenchmarkQualityMeasure measure,
+                               BenchmarkPrivacyModel criterion,
+                               int timeLimit,
+                               double suppressionLimit) throws IOException {
+        DoubleArrayList times = new DoubleArrayList();
+        while (times.size() < WARMUP_MAX && (times.size() < WARMUP_MIN || !isSteady(times))) {
+            times.add(BenchmarkEnvironment.getBenchmarkResults(algorithm, dataset, measure, criterion, timeLimit, suppressionLimit).executionTime);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Source code of the experiments from our 2016 paper 
+ * "Lightning: Utility-driven anonymization of high-dimensional data"
+ *      
+ * Copyright (C) 2015 Fabian Prasser, Raffael Bild, Johanna Eicher, Helmut Spengler, Florian Kohlmayer
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.deidentifier.arx.BenchmarkSetup.BenchmarkDataset;
+import org.deidentifier.arx.BenchmarkSetup.BenchmarkPrivacyModel;
+import org.deidentifier.arx.BenchmarkSetup.BenchmarkQualityMeasure;
+
+/**
+ * The matrix of an experiment, i.e. the quality measures, suppression limits, privacy models and
+ * datasets for which it is performed. The matrix is read from the file
+ * <code>experiments.properties</code> and can be restricted with the command line options
+ * <code>--measures</code>, <code>--suppressionLimits</code>, <code>--privacyModels</code> and
+ * <code>--datasets</code>, each followed by a comma-separated list of values. Another file can be
+ * specified with <code>--matrix</code>.
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkMatrix {
+
+    /** Default file */
+    private static final String FILE = "experiments.properties";
+
+    /**
+     * Loads the matrix of the given experiment and applies the filters specified on the command line
+     * @param experiment
+     * @param args
+     * @return
+     * @throws IOException
+     */
+    public static BenchmarkMatrix load(String experiment, String[] args) throws IOException {
+
+        // Load
+        String path = getOption(args, "--matrix");
+        File file = new File(path != null ? path : FILE);
+        Properties properties = new Properties();
+        Reader reader = new InputStreamReader(new FileInputStream(file), Charset.forName("UTF-8"));
+        try {
+            properties.load(reader);
+        } finally {
+            reader.close();
+        }
+
+        // Parse
+        List<BenchmarkQualityMeasure> measures = new ArrayList<BenchmarkQualityMeasure>();
+        for (String value : getValues(properties, experiment, "measures", args)) {
+            measures.add(BenchmarkQualityMeasure.valueOf(value));
+        }
+        List<Double> suppressionLimits = new ArrayList<Double>();
+        for (String value : getValues(properties, experiment, "suppressionLimits", args)) {
+            suppressionLimits.add(Double.valueOf(value));
+        }
+        List<BenchmarkPrivacyModel> privacyModels = new ArrayList<BenchmarkPrivacyModel>();
+        for (String value : getValues(properties, experiment, "privacyModels", args)) {
+            privacyModels.add(BenchmarkPrivacyModel.valueOf(value));
+        }
+        List<BenchmarkDataset> datasets = new ArrayList<BenchmarkDataset>();
+        for (String value : getValues(properties, experiment, "datasets", args)) {
+            datasets.add(BenchmarkDataset.valueOf(value));
+        }
+
+        // Return
+        double[] limits = new double[suppressionLimits.size()];
+        for (int i = 0; i < limits.length; i++) {
+            limits[i] = suppressionLimits.get(i);
+        }
+        return new BenchmarkMatrix(measures.toArray(new BenchmarkQualityMeasure[measures.size()]),
+                                   limits,
+                                   privacyModels.toArray(new BenchmarkPrivacyModel[privacyModels.size()]),
+                                   datasets.toArray(new BenchmarkDataset[datasets.size()]));
+    }
+
+    /**
+     * Returns the value of the given command line option, or null if it is not present.
+     * Supports the forms <code>--option value</code> and <code>--option=value</code>.
+     * 
+     * @param args
+     * @param option
+     * @return
+     */
+    public static String getOption(String[] args, String option) {
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals(option) && i + 1 < args.length) {
+                return args[i + 1];
+            } else if (args[i].startsWith(option + "=")) {
+                return args[i].substring(option.length() + 1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the values of the given dimension, restricted to the values selected on the command line
+     * @param properties
+     * @param experiment
+     * @param dimension
+     * @param args
+     * @return
+     */
+    private static List<String> getValues(Properties properties, String experiment, String dimension, String[] args) {
+
+        // Matrix
+        String key = experiment + "." + dimension;
+        String property = properties.getProperty(key);
+        if (property == null) {
+            throw new IllegalArgumentException("Missing property: " + key);
+        }
+        List<String> values = split(property);
+
+        // Filter
+        String option = getOption(args, "--" + dimension);
+        if (option == null) {
+            return values;
+        }
+        List<String> selected = split(option);
+        for (String value : selected) {
+            if (!contains(values, value)) {
+                throw new IllegalArgumentException("Value " + value + " is not contained in " + key);
+            }
+        }
+        List<String> result = new ArrayList<String>();
+        for (String value : values) {
+            if (contains(selected, value)) {
+                result.add(value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether the list contains the value. Numbers are compared numerically.
+     * @param values
+     * @param value
+     * @return
+     */
+    private static boolean contains(List<String> values, String value) {
+        for (String element : values) {
+            if (element.equals(value)) {
+                return true;
+            }
+            try {
+                if (Double.parseDouble(element) == Double.parseDouble(value)) {
+                    return true;
+                }
+            } catch (NumberFormatException e) {
+                // Not a number
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Splits a comma-separated list
+     * @param value
+     * @return
+     */
+    private static List<String> split(String value) {
+        List<String> result = new ArrayList<String>();
+        for (String element : value.split(",")) {
+            element = element.trim();
+            if (!element.isEmpty()) {
+                result.add(element);
+            }
+        }
+        return result;
+    }
+
+    /** Quality measures */
+    private final BenchmarkQualityMeasure[] measures;
+
+    /** Suppression limits */
+    private final double[]                  suppressionLimits;
+
+    /** Privacy models */
+    private final BenchmarkPrivacyModel[]   privacyModels;
+
+    /** Datasets */
+    private final BenchmarkDataset[]        datasets;
+
+    /**
+     * Creates a new instance
+     * @param measures
+     * @param suppressionLimits
+     * @param privacyModels
+     * @param datasets
+     */
+    private BenchmarkMatrix(BenchmarkQualityMeasure[] measures,
+                            double[] suppressionLimits,
+                            BenchmarkPrivacyModel[] privacyModels,
+                            BenchmarkDataset[] datasets) {
+        this.measures = measures;
+        this.suppressionLimits = suppressionLimits;
+        this.privacyModels = privacyModels;
+        this.datasets = datasets;
+    }
+
+    /**
+     * Returns all datasets
+     * @return
+     */
+    public BenchmarkDataset[] getDatasets() {
+        return datasets;
+    }
+
+    /**
+     * Returns all privacy models
+     * @return
+     */
+    public BenchmarkPrivacyModel[] getPrivacyModels() {
+        return privacyModels;
+    }
+
+    /**
+     * Returns all quality measures
+     * @return
+     */
+    public BenchmarkQualityMeasure[] getQualityMeasures() {
+        return measures;
+    }
+
+    /**
+     * Returns all suppression limits
+     * @return
+     */
+    public double[] getSuppressionLimits() {
+        return suppressionLimits;
+    }
+}
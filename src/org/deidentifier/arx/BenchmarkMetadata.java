@@ -537,10 +537,11 @@ public class BenchmarkMetadata {
     public static void main(String[] args) throws IOException {
         
         // For each relevant combination
-        for (BenchmarkQualityMeasure measure : getUtilityMeasures()) {
-            for (double suppressionLimit : getSuppressionLimits()) {
-                for (BenchmarkPrivacyModel criterion : getCriteria()) {
-                    for (BenchmarkDataset dataset : getDatasets()) {
+        BenchmarkMatrix matrix = BenchmarkMatrix.load("metadata", args);
+        for (BenchmarkQualityMeasure measure : matrix.getQualityMeasures()) {
+            for (double suppressionLimit : matrix.getSuppressionLimits()) {
+                for (BenchmarkPrivacyModel criterion : matrix.getPrivacyModels()) {
+                    for (BenchmarkDataset dataset : matrix.getDatasets()) {
                         
                         // Compute
                         double[] minmax = BenchmarkEnvironment.getMinimalAndMaximalInformationLoss(dataset, measure, criterion, suppressionLimit);
@@ -558,54 +559,4 @@ public class BenchmarkMetadata {
             }
         }
     }
-
-    /**
-     * Returns all criteria
-     * @return
-     */
-    private static BenchmarkPrivacyModel[] getCriteria() {
-        return new BenchmarkPrivacyModel[]{
-            BenchmarkPrivacyModel.K_ANONYMITY,
-            BenchmarkPrivacyModel.L_DIVERSITY,
-            BenchmarkPrivacyModel.T_CLOSENESS,
-            BenchmarkPrivacyModel.D_PRESENCE,
-            BenchmarkPrivacyModel.P_UNIQUENESS
-        };
-    }
-
-    /**
-     * Returns all datasets
-     * @return
-     */
-    private static BenchmarkDataset[] getDatasets() {
-        return new BenchmarkDataset[] { 
-                BenchmarkDataset.ADULT,
-                BenchmarkDataset.CUP,
-                BenchmarkDataset.FARS,
-                BenchmarkDataset.ATUS,
-                BenchmarkDataset.IHIS
-        };
-    }
-
-    /**
-     * Returns all suppression limits
-     * @return
-     */
-    private static double[] getSuppressionLimits() {
-        return new double[]{0d, 0.1d, 1d};
-    }
-
-    /**
-     * Returns all utility measures
-     * @return
-     */
-    private static BenchmarkQualityMeasure[] getUtilityMeasures() {
-        return new BenchmarkQualityMeasure[] {
-                // BenchmarkQualityMeasure.AECS,
-                // BenchmarkQualityMeasure.LOSS,
-                // BenchmarkQualityMeasure.DISCERNIBILITY,
-                BenchmarkQualityMeasure.ENTROPY,
-                BenchmarkQualityMeasure.PRECISION
-        };
-    }
 }
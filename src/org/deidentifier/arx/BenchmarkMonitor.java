@@ -0,0 +1,160 @@
+/*
+ * Source code of the experiments from our 2016 paper 
+ * "Lightning: Utility-driven anonymization of high-dimensional data"
+ *      
+ * Copyright (C) 2015 Fabian Prasser, Raffael Bild, Johanna Eicher, Helmut Spengler, Florian Kohlmayer
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.deidentifier.arx.algorithm.AlgorithmBenchmark;
+import org.deidentifier.arx.algorithm.AlgorithmCounter;
+
+/**
+ * Exposes live metrics of a running benchmark as an MBean on the platform MBean server, named
+ * <code>org.deidentifier.arx:type=Benchmark,id=...</code>. The metrics can be watched with
+ * JConsole or any other JMX client. Monitors are only registered if the system property
+ * <code>benchmark.monitor</code> is set to true. The metrics are read from the running search
+ * without synchronization and are therefore approximate.
+ * 
+ * @author Fabian Prasser
+ */
+public class BenchmarkMonitor implements BenchmarkMonitorMBean {
+
+    /** Whether monitors are registered */
+    private static final boolean       ENABLED = Boolean.parseBoolean(System.getProperty("benchmark.monitor", "false"));
+
+    /** Identifiers */
+    private static final AtomicInteger IDS     = new AtomicInteger();
+
+    /**
+     * Registers a monitor for the given algorithm. Returns null if monitoring is disabled or failed.
+     * @param cell
+     * @param algorithm
+     * @param timeLimit
+     * @return
+     */
+    public static BenchmarkMonitor register(String cell, AlgorithmBenchmark algorithm, int timeLimit) {
+        if (!ENABLED) {
+            return null;
+        }
+        try {
+            ObjectName name = new ObjectName("org.deidentifier.arx:type=Benchmark,id=" + IDS.incrementAndGet());
+            BenchmarkMonitor monitor = new BenchmarkMonitor(cell, algorithm, timeLimit, name);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(monitor, name);
+            return monitor;
+        } catch (JMException e) {
+            System.err.println("Cannot register monitor: " + e);
+            return null;
+        }
+    }
+
+    /** Algorithm */
+    private final AlgorithmBenchmark algorithm;
+    /** Cell */
+    private final String             cell;
+    /** Name */
+    private final ObjectName         name;
+    /** Start time in nanoseconds */
+    private final long               start;
+    /** Time limit in milliseconds */
+    private final int                timeLimit;
+
+    /**
+     * Creates a new instance
+     * @param cell
+     * @param algorithm
+     * @param timeLimit
+     * @param name
+     */
+    private BenchmarkMonitor(String cell, AlgorithmBenchmark algorithm, int timeLimit, ObjectName name) {
+        this.cell = cell;
+        this.algorithm = algorithm;
+        this.timeLimit = timeLimit;
+        this.name = name;
+        this.start = System.nanoTime();
+    }
+
+    @Override
+    public String getCell() {
+        return cell;
+    }
+
+    @Override
+    public long getChecks() {
+        return algorithm.getCounters()[AlgorithmCounter.CHECKS.ordinal()];
+    }
+
+    @Override
+    public double getChecksPerSecond() {
+        long elapsed = System.nanoTime() - start;
+        return elapsed == 0 ? 0d : getChecks() * 1000000000d / elapsed;
+    }
+
+    @Override
+    public long getElapsedTime() {
+        return (System.nanoTime() - start) / 1000000L;
+    }
+
+    @Override
+    public int getFrontierSize() {
+        return algorithm.getFrontierSize();
+    }
+
+    @Override
+    public long getHeapUsed() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    @Override
+    public String getInformationLoss() {
+        return algorithm.getOptimumInformationLoss();
+    }
+
+    @Override
+    public double getProgress() {
+        return algorithm.getProgress();
+    }
+
+    @Override
+    public long getPropertyStoreSize() {
+        return algorithm.getPropertyStoreSize();
+    }
+
+    @Override
+    public long getRemainingTime() {
+        if (timeLimit <= 0 || timeLimit == Integer.MAX_VALUE) {
+            return -1;
+        }
+        return Math.max(0L, timeLimit - getElapsedTime());
+    }
+
+    /**
+     * Unregisters this monitor
+     */
+    public void unregister() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch (JMException e) {
+            System.err.println("Cannot unregister monitor: " + e);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Source code of the experiments from our 2016 paper 
+ * "Lightning: Utility-driven anonymization of high-dimensional data"
+ *      
+ * Copyright (C) 2015 Fabian Prasser, Raffael Bild, Johanna Eicher, Helmut Spengler, Florian Kohlmayer
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx;
+
+/**
+ * Management interface of a running benchmark. Values are read without synchronization and are
+ * approximate.
+ * 
+ * @author Fabian Prasser
+ */
+public interface BenchmarkMonitorMBean {
+
+    /**
+     * Returns a description of the cell which is being measured
+     * @return
+     */
+    public String getCell();
+
+    /**
+     * Returns the number of transformations checked so far
+     * @return
+     */
+    public long getChecks();
+
+    /**
+     * Returns the number of transformations checked per second
+     * @return
+     */
+    public double getChecksPerSecond();
+
+    /**
+     * Returns the elapsed time in milliseconds
+     * @return
+     */
+    public long getElapsedTime();
+
+    /**
+     * Returns the current size of the frontier
+     * @return
+     */
+    public int getFrontierSize();
+
+    /**
+     * Returns the number of bytes used on the heap
+     * @return
+     */
+    public long getHeapUsed();
+
+    /**
+     * Returns the information loss of the best solution found so far, null if there is none
+     * @return
+     */
+    public String getInformationLoss();
+
+    /**
+     * Returns the progress reported by the algorithm
+     * @return
+     */
+    public double getProgress();
+
+    /**
+     * Returns the number of bytes used by the property stores of the algorithm
+     * @return
+     */
+    public long getPropertyStoreSize();
+
+    /**
+     * Returns the remaining time in milliseconds, -1 if there is no time limit
+     * @return
+     */
+    public long getRemainingTime();
+}
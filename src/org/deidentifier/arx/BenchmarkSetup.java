@@ -20,6 +20,7 @@
 package org.deidentifier.arx;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 import org.deidentifier.arx.ARXConfiguration;
 import org.deidentifier.arx.ARXPopulationModel;
@@ -79,6 +80,12 @@ public class BenchmarkSetup {
             public String toString() {
                 return "IGreedy";
             }
+        },
+        HYBRID {
+            @Override
+            public String toString() {
+                return "Hybrid";
+            }
         }
     }
 
@@ -346,7 +353,8 @@ public class BenchmarkSetup {
     }
     
     /**
-     * Configures and returns the dataset 
+     * Configures and returns the dataset. If a privacy model is given, only the
+     * attributes relevant for the model are loaded.
      * @param dataset
      * @param criterion
      * @param qiCount
@@ -357,52 +365,64 @@ public class BenchmarkSetup {
     public static Data getData(BenchmarkDataset dataset, 
                                BenchmarkPrivacyModel criterion,
                                int qiCount) throws IOException {
-        Data data = null;
+
+        // Load all attributes
+        if (criterion == null) {
+            return Data.create(getDataFile(dataset), ';');
+        }
+
+        // Load projection
+        String[] qis = getQuasiIdentifyingAttributes(dataset, qiCount);
+        String sensitive = null;
+        switch (criterion) {
+        case L_DIVERSITY:
+        case T_CLOSENESS:
+            sensitive = getSensitiveAttribute(dataset);
+            break;
+        }
+        String[] attributes = qis;
+        if (sensitive != null) {
+            attributes = Arrays.copyOf(qis, qis.length + 1);
+            attributes[qis.length] = sensitive;
+        }
+        Data data = BenchmarkDataLoader.load(getDataFile(dataset), ';', attributes);
+
+        // Configure
+        for (String qi : qis) {
+            data.getDefinition().setAttributeType(qi, getHierarchy(dataset, qi));
+        }
+        if (sensitive != null) {
+            data.getDefinition().setAttributeType(sensitive, AttributeType.SENSITIVE_ATTRIBUTE);
+        }
+
+        return data;
+    }
+    
+    /**
+     * Returns the file containing the dataset
+     * @param dataset
+     * @return
+     */
+    public static String getDataFile(BenchmarkDataset dataset) {
         switch (dataset) {
         case ADULT:
-            data = Data.create("data/adult.csv", ';');
-            break;
+            return "data/adult.csv";
         case ATUS:
-            data = Data.create("data/atus.csv", ';');
-            break;
+            return "data/atus.csv";
         case CUP:
-            data = Data.create("data/cup.csv", ';');
-            break;
+            return "data/cup.csv";
         case FARS:
-            data = Data.create("data/fars.csv", ';');
-            break;
+            return "data/fars.csv";
         case IHIS:
-            data = Data.create("data/ihis.csv", ';');
-            break;
+            return "data/ihis.csv";
         case SS13ACS_15:
         case SS13ACS_20:
         case SS13ACS_25:
         case SS13ACS_30:
-            data = Data.create("data/ss13acs.csv", ';');
-            break;
+            return "data/ss13acs.csv";
         default:
             throw new RuntimeException("Invalid dataset");
         }
-
-        if (criterion != null) {
-            int count = 0;
-            for (String qi : getQuasiIdentifyingAttributes(dataset)) {
-                data.getDefinition().setAttributeType(qi, getHierarchy(dataset, qi));
-                count++;
-                if (count > qiCount) {
-                    break;
-                }
-            }
-            switch (criterion) {
-            case L_DIVERSITY:
-            case T_CLOSENESS:
-                String sensitive = getSensitiveAttribute(dataset);
-                data.getDefinition().setAttributeType(sensitive, AttributeType.SENSITIVE_ATTRIBUTE);
-                break;
-            }
-        }
-
-        return data;
     }
     
     /**
@@ -607,6 +627,17 @@ public class BenchmarkSetup {
         }
     }
 
+    /**
+     * Returns the first qiCount quasi-identifiers for the dataset
+     * @param dataset
+     * @param qiCount
+     * @return
+     */
+    public static String[] getQuasiIdentifyingAttributes(BenchmarkDataset dataset, int qiCount) {
+        String[] qis = getQuasiIdentifyingAttributes(dataset);
+        return qiCount < qis.length ? Arrays.copyOf(qis, qiCount) : qis;
+    }
+
     /**
      * Returns the research subset for the dataset
      * @param dataset
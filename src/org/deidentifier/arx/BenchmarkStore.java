@@ -0,0 +1,555 @@
+/*
+ * Source code of the experiments from our 2016 paper 
+ * "Lightning: Utility-driven anonymization of high-dimensional data"
+ *      
+ * Copyright (C) 2015 Fabian Prasser, Raffael Bild, Johanna Eicher, Helmut Spengler, Florian Kohlmayer
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import cern.colt.list.IntArrayList;
+import de.linearbits.subframe.analyzer.Analyzer;
+import de.linearbits.subframe.io.CSVFile;
+
+/**
+ * A columnar, binary representation of a results file. The dimension columns, i.e. the labels of
+ * the runs, and all non-numeric measures are dictionary-encoded. Numeric measures are stored as
+ * primitive arrays. Rows can be selected by the values of dictionary-encoded columns using an
+ * inverted index. The store is written next to the results file, e.g. to
+ * <code>results/experiment1.bin</code>, and rebuilt from the results file if it is outdated.
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkStore {
+
+    /**
+     * A column
+     *
+     * @author Fabian Prasser
+     */
+    private static class Column {
+
+        /** Name */
+        private final String   name;
+        /** Values of numeric columns, null otherwise */
+        private final double[] values;
+        /** Codes of dictionary-encoded columns, null otherwise */
+        private final int[]    codes;
+        /** Dictionary of dictionary-encoded columns, null otherwise */
+        private final String[] dictionary;
+        /** Inverted index: ascending rows per code, created on demand */
+        private int[][]        index;
+
+        /**
+         * Creates a dictionary-encoded column
+         * @param name
+         * @param codes
+         * @param dictionary
+         */
+        private Column(String name, int[] codes, String[] dictionary) {
+            this.name = name;
+            this.values = null;
+            this.codes = codes;
+            this.dictionary = dictionary;
+        }
+
+        /**
+         * Creates a numeric column
+         * @param name
+         * @param values
+         */
+        private Column(String name, double[] values) {
+            this.name = name;
+            this.values = values;
+            this.codes = null;
+            this.dictionary = null;
+        }
+
+        /**
+         * Returns the code of the given value, -1 if it does not occur
+         * @param value
+         * @return
+         */
+        private int getCode(String value) {
+            for (int i = 0; i < dictionary.length; i++) {
+                if (dictionary[i].equals(value)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Returns the inverted index
+         * @return
+         */
+        private int[][] getIndex() {
+            if (index == null) {
+                int[] sizes = new int[dictionary.length];
+                for (int code : codes) {
+                    sizes[code]++;
+                }
+                int[][] result = new int[dictionary.length][];
+                for (int i = 0; i < result.length; i++) {
+                    result[i] = new int[sizes[i]];
+                    sizes[i] = 0;
+                }
+                for (int row = 0; row < codes.length; row++) {
+                    int code = codes[row];
+                    result[code][sizes[code]++] = row;
+                }
+                index = result;
+            }
+            return index;
+        }
+    }
+
+    /** Magic number of the binary format */
+    private static final int     MAGIC   = 0x41525853;
+
+    /** Version of the binary format */
+    private static final int     VERSION = 1;
+
+    /** Charset */
+    private static final Charset CHARSET = Charset.forName("UTF-8");
+
+    /**
+     * Converts results files into stores
+     * @param args The results files
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+        for (String arg : args) {
+            File file = new File(arg);
+            BenchmarkStore store = fromCSV(file);
+            store.write(getStoreFile(file));
+            System.out.println("Converted " + store.size() + " rows of " + file);
+        }
+    }
+
+    /**
+     * Creates a store from a results file
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    public static BenchmarkStore fromCSV(File file) throws IOException {
+
+        // Read
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), CHARSET));
+        String[] measures;
+        String[] labels;
+        List<String[]> lines = new ArrayList<String[]>();
+        try {
+            String first = reader.readLine();
+            String second = reader.readLine();
+            if (first == null || second == null) {
+                throw new IOException("Missing header in " + file);
+            }
+            measures = first.split(";", -1);
+            labels = second.split(";", -1);
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (!line.isEmpty()) {
+                    lines.add(line.split(";", -1));
+                }
+            }
+        } finally {
+            reader.close();
+        }
+
+        // Dimensions are labeled in the second line of the header only
+        int dimensions = 0;
+        while (dimensions < measures.length && measures[dimensions].isEmpty()) {
+            dimensions++;
+        }
+
+        // Create columns
+        Column[] columns = new Column[measures.length];
+        for (int i = 0; i < columns.length; i++) {
+            String name = i < dimensions ? labels[i] : measures[i];
+            double[] values = i < dimensions ? null : getNumericValues(lines, i);
+            if (values != null) {
+                columns[i] = new Column(name, values);
+            } else {
+                Map<String, Integer> codes = new HashMap<String, Integer>();
+                List<String> dictionary = new ArrayList<String>();
+                int[] data = new int[lines.size()];
+                for (int row = 0; row < data.length; row++) {
+                    String value = lines.get(row)[i];
+                    Integer code = codes.get(value);
+                    if (code == null) {
+                        code = dictionary.size();
+                        codes.put(value, code);
+                        dictionary.add(value);
+                    }
+                    data[row] = code;
+                }
+                columns[i] = new Column(name, data, dictionary.toArray(new String[dictionary.size()]));
+            }
+        }
+        return new BenchmarkStore(dimensions, lines.size(), columns);
+    }
+
+    /**
+     * Opens the store for the given results file. The store is rebuilt if it does not exist or if
+     * it is older than the results file.
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    public static BenchmarkStore open(File file) throws IOException {
+        File store = getStoreFile(file);
+        if (store.exists() && (!file.exists() || store.lastModified() >= file.lastModified())) {
+            return read(store);
+        }
+        BenchmarkStore result = fromCSV(file);
+        result.write(store);
+        return result;
+    }
+
+    /**
+     * Returns the file of the store for the given results file
+     * @param file
+     * @return
+     */
+    public static File getStoreFile(File file) {
+        String name = file.getName();
+        int index = name.lastIndexOf('.');
+        return new File(file.getParentFile(), (index == -1 ? name : name.substring(0, index)) + ".bin");
+    }
+
+    /**
+     * Reads a store
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    public static BenchmarkStore read(File file) throws IOException {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            if (input.readInt() != MAGIC) {
+                throw new IOException("Not a results store: " + file);
+            }
+            int version = input.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported version of results store: " + version);
+            }
+            int dimensions = input.readInt();
+            int rows = input.readInt();
+            Column[] columns = new Column[input.readInt()];
+            for (int i = 0; i < columns.length; i++) {
+                String name = input.readUTF();
+                if (input.readBoolean()) {
+                    double[] values = new double[rows];
+                    for (int row = 0; row < rows; row++) {
+                        values[row] = input.readDouble();
+                    }
+                    columns[i] = new Column(name, values);
+                } else {
+                    String[] dictionary = new String[input.readInt()];
+                    for (int j = 0; j < dictionary.length; j++) {
+                        dictionary[j] = input.readUTF();
+                    }
+                    int[] codes = new int[rows];
+                    for (int row = 0; row < rows; row++) {
+                        codes[row] = input.readInt();
+                    }
+                    columns[i] = new Column(name, codes, dictionary);
+                }
+            }
+            return new BenchmarkStore(dimensions, rows, columns);
+        } finally {
+            input.close();
+        }
+    }
+
+    /**
+     * Returns the values of the given column, if all of them are numeric, null otherwise
+     * @param lines
+     * @param column
+     * @return
+     */
+    private static double[] getNumericValues(List<String[]> lines, int column) {
+        double[] result = new double[lines.size()];
+        for (int row = 0; row < result.length; row++) {
+            try {
+                result[row] = Double.parseDouble(lines.get(row)[column]);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return result;
+    }
+
+    /** Number of dimension columns */
+    private final int                 dimensions;
+
+    /** Number of rows */
+    private final int                 rows;
+
+    /** Columns */
+    private final Column[]            columns;
+
+    /** Columns by name */
+    private final Map<String, Column> names = new HashMap<String, Column>();
+
+    /**
+     * Creates a new instance
+     * @param dimensions
+     * @param rows
+     * @param columns
+     */
+    private BenchmarkStore(int dimensions, int rows, Column[] columns) {
+        this.dimensions = dimensions;
+        this.rows = rows;
+        this.columns = columns;
+        for (Column column : columns) {
+            this.names.put(column.name, column);
+        }
+    }
+
+    /**
+     * Returns the code of the value of the given dictionary-encoded column in the given row
+     * @param column
+     * @param row
+     * @return
+     */
+    public int getCode(String column, int row) {
+        return getDictionaryColumn(column).codes[row];
+    }
+
+    /**
+     * Returns the code of the given value of the given dictionary-encoded column, -1 if it does
+     * not occur
+     * @param column
+     * @param value
+     * @return
+     */
+    public int getCode(String column, String value) {
+        return getDictionaryColumn(column).getCode(value);
+    }
+
+    /**
+     * Returns the distinct values of the given dictionary-encoded column, in order of appearance
+     * @param column
+     * @return
+     */
+    public String[] getDistinctValues(String column) {
+        return getDictionaryColumn(column).dictionary.clone();
+    }
+
+    /**
+     * Returns the numeric value of the given column in the given row
+     * @param column
+     * @param row
+     * @return
+     */
+    public double getDouble(String column, int row) {
+        Column data = getColumn(column);
+        return data.values != null ? data.values[row] : Double.parseDouble(data.dictionary[data.codes[row]]);
+    }
+
+    /**
+     * Returns the value of the given column in the given row
+     * @param column
+     * @param row
+     * @return
+     */
+    public String getString(String column, int row) {
+        Column data = getColumn(column);
+        return data.values != null ? String.valueOf(data.values[row]) : data.dictionary[data.codes[row]];
+    }
+
+    /**
+     * Returns the rows, in ascending order, in which the given dictionary-encoded columns have
+     * the given values.
+     * @param conditions Pairs of column names and values
+     * @return
+     */
+    public int[] select(String... conditions) {
+        if (conditions.length % 2 != 0) {
+            throw new IllegalArgumentException("Conditions must be pairs of columns and values");
+        }
+
+        // Start with all rows
+        int[] result = null;
+        for (int i = 0; i < conditions.length; i += 2) {
+            Column column = getDictionaryColumn(conditions[i]);
+            int code = column.getCode(conditions[i + 1]);
+            if (code == -1) {
+                return new int[0];
+            }
+            int[] rows = column.getIndex()[code];
+            result = result == null ? rows : intersect(result, rows);
+        }
+        if (result == null) {
+            result = new int[rows];
+            for (int row = 0; row < rows; row++) {
+                result[row] = row;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of rows
+     * @return
+     */
+    public int size() {
+        return rows;
+    }
+
+    /**
+     * Returns a results file containing the given rows with all dimensions and the given measures
+     * @param rows
+     * @param measures
+     * @return
+     */
+    public CSVFile toCSVFile(int[] rows, String... measures) {
+        String[] header1 = new String[dimensions + measures.length];
+        String[] header2 = new String[header1.length];
+        for (int i = 0; i < header1.length; i++) {
+            header1[i] = i < dimensions ? "" : measures[i - dimensions];
+            header2[i] = i < dimensions ? columns[i].name : Analyzer.VALUE;
+        }
+        CSVFile result = new CSVFile(header1, header2);
+        for (int row : rows) {
+            String[] line = new String[header1.length];
+            for (int i = 0; i < line.length; i++) {
+                line[i] = getString(i < dimensions ? columns[i].name : measures[i - dimensions], row);
+            }
+            result.addLine(line);
+        }
+        return result;
+    }
+
+    /**
+     * Writes the store by atomically replacing the given file
+     * @param file
+     * @throws IOException
+     */
+    public void write(File file) throws IOException {
+
+        // Write to a temporary file in the same directory
+        File temp = File.createTempFile(file.getName(), ".tmp", file.getAbsoluteFile().getParentFile());
+        try {
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+            try {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeInt(dimensions);
+                output.writeInt(rows);
+                output.writeInt(columns.length);
+                for (Column column : columns) {
+                    output.writeUTF(column.name);
+                    output.writeBoolean(column.values != null);
+                    if (column.values != null) {
+                        for (double value : column.values) {
+                            output.writeDouble(value);
+                        }
+                    } else {
+                        output.writeInt(column.dictionary.length);
+                        for (String value : column.dictionary) {
+                            output.writeUTF(value);
+                        }
+                        for (int code : column.codes) {
+                            output.writeInt(code);
+                        }
+                    }
+                }
+            } finally {
+                output.close();
+            }
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            temp.delete();
+        }
+    }
+
+    /**
+     * Returns the given column
+     * @param name
+     * @return
+     */
+    private Column getColumn(String name) {
+        Column result = names.get(name);
+        if (result == null) {
+            throw new IllegalArgumentException("Unknown column: " + name);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the given dictionary-encoded column
+     * @param name
+     * @return
+     */
+    private Column getDictionaryColumn(String name) {
+        Column result = getColumn(name);
+        if (result.dictionary == null) {
+            throw new IllegalArgumentException("Column is not dictionary-encoded: " + name);
+        }
+        return result;
+    }
+
+    /**
+     * Intersects two ascending arrays of rows
+     * @param rows1
+     * @param rows2
+     * @return
+     */
+    private int[] intersect(int[] rows1, int[] rows2) {
+        IntArrayList result = new IntArrayList(Math.min(rows1.length, rows2.length));
+        int i = 0;
+        int j = 0;
+        while (i < rows1.length && j < rows2.length) {
+            if (rows1[i] < rows2[j]) {
+                i++;
+            } else if (rows1[i] > rows2[j]) {
+                j++;
+            } else {
+                result.add(rows1[i]);
+                i++;
+                j++;
+            }
+        }
+        result.trimToSize();
+        return Arrays.copyOf(result.elements(), result.size());
+    }
+}
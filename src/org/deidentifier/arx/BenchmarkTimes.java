@@ -0,0 +1,141 @@
+/*
+ * Source code of the experiments from our 2016 paper 
+ * "Lightning: Utility-driven anonymization of high-dimensional data"
+ *      
+ * Copyright (C) 2015 Fabian Prasser, Raffael Bild, Johanna Eicher, Helmut Spengler, Florian Kohlmayer
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx;
+
+import cern.colt.list.DoubleArrayList;
+
+/**
+ * The distribution of the execution times measured in repeated runs. Provides the median and a
+ * distribution-free 95% confidence interval for the median, which is derived from order
+ * statistics and requires at least eight runs.
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkTimes {
+
+    /** Quantile of the standard normal distribution for 95% confidence */
+    private static final double Z     = 1.96d;
+
+    /** Times */
+    private final DoubleArrayList times = new DoubleArrayList();
+
+    /** Times, sorted, null if outdated */
+    private DoubleArrayList       sorted;
+
+    /**
+     * Adds a time
+     * @param time
+     */
+    public void add(double time) {
+        times.add(time);
+        sorted = null;
+    }
+
+    /**
+     * Returns the lower bound of the confidence interval of the median, or NaN if there are not enough runs
+     * @return
+     */
+    public double getLowerBound() {
+        int n = times.size();
+        int lower = (int) Math.floor(n / 2d - Z * Math.sqrt(n) / 2d);
+        return lower < 1 ? Double.NaN : getSorted().getQuick(lower - 1);
+    }
+
+    /**
+     * Returns the median, or NaN if there are no runs
+     * @return
+     */
+    public double getMedian() {
+        int n = times.size();
+        if (n == 0) {
+            return Double.NaN;
+        }
+        DoubleArrayList sorted = getSorted();
+        return n % 2 == 1 ? sorted.getQuick(n / 2) : (sorted.getQuick(n / 2 - 1) + sorted.getQuick(n / 2)) / 2d;
+    }
+
+    /**
+     * Returns the minimum, or NaN if there are no runs
+     * @return
+     */
+    public double getMinimum() {
+        return times.isEmpty() ? Double.NaN : getSorted().getQuick(0);
+    }
+
+    /**
+     * Returns the half width of the confidence interval of the median relative to the median.
+     * Returns infinity if there are not enough runs.
+     * @return
+     */
+    public double getRelativeError() {
+        double lower = getLowerBound();
+        double upper = getUpperBound();
+        double median = getMedian();
+        if (Double.isNaN(lower) || Double.isNaN(upper)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return median == 0d ? (upper == lower ? 0d : Double.POSITIVE_INFINITY) : (upper - lower) / (2d * median);
+    }
+
+    /**
+     * Returns the upper bound of the confidence interval of the median, or NaN if there are not enough runs
+     * @return
+     */
+    public double getUpperBound() {
+        int n = times.size();
+        int lower = (int) Math.floor(n / 2d - Z * Math.sqrt(n) / 2d);
+        return lower < 1 ? Double.NaN : getSorted().getQuick(n - lower);
+    }
+
+    /**
+     * Returns the number of runs
+     * @return
+     */
+    public int size() {
+        return times.size();
+    }
+
+    /**
+     * Returns all times in the order in which they have been measured, separated by spaces
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times.size(); i++) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+            builder.append(times.getQuick(i));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Returns the sorted times
+     * @return
+     */
+    private DoubleArrayList getSorted() {
+        if (sorted == null) {
+            sorted = times.copy();
+            sorted.sort();
+        }
+        return sorted;
+    }
+}
@@ -19,11 +19,17 @@
 
 package org.deidentifier.arx.algorithm;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.deidentifier.arx.algorithm.AlgorithmProfile.ProfileMeasure;
 import org.deidentifier.arx.framework.check.NodeChecker;
 import org.deidentifier.arx.framework.lattice.SolutionSpace;
 import org.deidentifier.arx.framework.lattice.Transformation;
+import org.deidentifier.arx.metric.InformationLoss;
+import org.deidentifier.arx.metric.v2.InformationLossCodec;
 
-import cern.colt.list.DoubleArrayList;
+import cern.colt.list.LongArrayList;
 
 /**
  * Abstract base class
@@ -32,14 +38,44 @@ import cern.colt.list.DoubleArrayList;
  */
 public abstract class AlgorithmBenchmark extends AbstractAlgorithm {
 
-    /** Start time of the search process */
-    private long            time        = 0;
+    /** Start time of the search process, in nanoseconds */
+    private long                               time        = 0;
 
-    /** Time at which the optimum was discovered */
-    private int             discovery   = 0;
+    /** Time at which the optimum was discovered, in nanoseconds */
+    private long                               discovery   = 0;
 
     /** The track record */
-    private DoubleArrayList trackRecord = new DoubleArrayList();
+    private final AlgorithmTrackRecord         trackRecord = new AlgorithmTrackRecord();
+
+    /** Identifiers of the optima in the track record */
+    private final LongArrayList                optima      = new LongArrayList();
+
+    /** The counters, indexed by ordinal */
+    private final long[]                       counters    = new long[AlgorithmCounter.values().length];
+
+    /** The profile, null if profiles are not recorded */
+    private final AlgorithmProfile             profile;
+
+    /** The property stores, which may be read by monitors */
+    private final List<AlgorithmPropertyStore> stores      = new CopyOnWriteArrayList<AlgorithmPropertyStore>();
+
+    /** Record of the checks performed, null if checks are not recorded */
+    private AlgorithmCheckRecord               checkRecord = null;
+
+    /** The successor cursor, created on demand */
+    private AlgorithmSuccessorCursor           cursor      = null;
+
+    /** Current size of the frontier, read by monitors without synchronization */
+    private int                                frontier    = 0;
+
+    /** Information loss of the current optimum, read by monitors without synchronization */
+    private InformationLoss<?>                 optimum     = null;
+
+    /** Current progress, read by monitors without synchronization */
+    private double                             progress    = 0d;
+
+    /** Whether the previous run has been terminated by its time limit */
+    private boolean                            timeout     = false;
 
     /**
      * Creates a new instance
@@ -48,30 +84,264 @@ public abstract class AlgorithmBenchmark extends AbstractAlgorithm {
      */
     protected AlgorithmBenchmark(SolutionSpace arg0, NodeChecker arg1) {
         super(arg0, arg1);
+        this.profile = AlgorithmProfile.ENABLED ? new AlgorithmProfile(arg0.getTop().getLevel() + 1) : null;
+    }
+
+    /**
+     * Returns the counters of the previous run, indexed by ordinal. When read by other threads
+     * while a search is running, the values are approximate.
+     * @return
+     */
+    public long[] getCounters() {
+        return this.counters;
+    }
+
+    /**
+     * Returns the profile of the previous run, null if profiles are not recorded
+     * @return
+     */
+    public AlgorithmProfile getProfile() {
+        return this.profile;
     }
 
     /**
-     * Returns the time at which the optimum was discovered
+     * Returns the current size of the frontier
      * @return
      */
-    public int getDiscoveryTime() {
-        return discovery;
+    public int getFrontierSize() {
+        return this.frontier;
     }
 
     /**
-     * Returns a track record of the previous run. List containing tuples <time, utility>.
+     * Returns the number of bytes used by the property stores
      * @return
      */
-    public DoubleArrayList getTrackRecord() {
+    public long getPropertyStoreSize() {
+        long size = 0;
+        for (AlgorithmPropertyStore store : stores) {
+            size += store.getFootprint();
+        }
+        return size;
+    }
+
+    /**
+     * Returns the information loss of the current optimum, null if there is none
+     * @return
+     */
+    public String getOptimumInformationLoss() {
+        InformationLoss<?> optimum = this.optimum;
+        return optimum == null ? null : optimum.toString();
+    }
+
+    /**
+     * Returns the current progress, as reported by the algorithm
+     * @return
+     */
+    public double getProgress() {
+        return this.progress;
+    }
+
+    /**
+     * Returns the time at which the optimum was discovered in milliseconds
+     * @return
+     */
+    public double getDiscoveryTime() {
+        return discovery / 1000000d;
+    }
+
+    /**
+     * Returns the track record of the previous run
+     * @return
+     */
+    public AlgorithmTrackRecord getTrackRecord() {
         return this.trackRecord;
     }
 
+    /**
+     * Returns the identifier of the optimum of the given entry of the track record
+     * @param index
+     * @return
+     */
+    public long getTrackedOptimum(int index) {
+        return this.optima.get(index);
+    }
+
+    /**
+     * Returns whether the previous run has traversed the solution space completely, i.e. whether
+     * it has not been terminated by its time limit
+     * @return
+     */
+    public boolean isComplete() {
+        return !this.timeout;
+    }
+
+    /**
+     * Sets the record to which the results of the following checks are added, null to disable
+     * @param record
+     */
+    public void setCheckRecord(AlgorithmCheckRecord record) {
+        this.checkRecord = record;
+    }
+
     @Override
     public void traverse() {
-        this.time = System.currentTimeMillis();
+        this.time = System.nanoTime();
+        this.timeout = false;
         this.search();
+        this.counters[AlgorithmCounter.PROPERTY_STORE.ordinal()] = getPropertyStoreSize();
     }
     
+    /**
+     * Checks the given transformation
+     * @param transformation
+     * @return
+     */
+    protected NodeChecker.Result check(Transformation transformation) {
+        Object event = AlgorithmEvents.begin(AlgorithmEvents.CHECK);
+        long start = System.nanoTime();
+        NodeChecker.Result result = checker.check(transformation);
+        countCheck(start, transformation, result, event);
+        return result;
+    }
+
+    /**
+     * Checks the given transformation
+     * @param transformation
+     * @param forceMeasureInfoLoss
+     * @return
+     */
+    protected NodeChecker.Result check(Transformation transformation, boolean forceMeasureInfoLoss) {
+        Object event = AlgorithmEvents.begin(AlgorithmEvents.CHECK);
+        long start = System.nanoTime();
+        NodeChecker.Result result = checker.check(transformation, forceMeasureInfoLoss);
+        countCheck(start, transformation, result, event);
+        return result;
+    }
+
+    /**
+     * Creates a property store, which is included in the reported footprint
+     * @return
+     */
+    protected AlgorithmPropertyStore createPropertyStore() {
+        AlgorithmPropertyStore store = new AlgorithmPropertyStore();
+        this.stores.add(store);
+        return store;
+    }
+
+    /**
+     * Counts a transformation which has been pruned for the given reason
+     * @param reason
+     * @param transformation
+     */
+    protected void countPruned(AlgorithmCounter reason, Transformation transformation) {
+        this.counters[reason.ordinal()]++;
+        if (profile != null) {
+            profile.add(transformation.getLevel(), ProfileMeasure.PRUNED, 1);
+        }
+    }
+
+    /**
+     * Returns the current value of the given counter
+     * @param counter
+     * @return
+     */
+    protected long getCount(AlgorithmCounter counter) {
+        return this.counters[counter.ordinal()];
+    }
+
+    /**
+     * Updates the current size and the high-water mark of the frontier
+     * @param size
+     */
+    protected void countFrontier(int size) {
+        this.frontier = size;
+        int index = AlgorithmCounter.FRONTIER.ordinal();
+        this.counters[index] = Math.max(this.counters[index], size);
+    }
+
+    /**
+     * Counts the given transformation as expanded, together with its successors
+     * @param identifier
+     * @param successors
+     */
+    protected void countExpanded(long identifier, int successors) {
+        this.counters[AlgorithmCounter.SUCCESSORS.ordinal()] += successors;
+        if (profile != null) {
+            profile.add(solutionSpace.getTransformation(identifier).getLevel(), ProfileMeasure.EXPANDED, 1);
+        }
+    }
+
+    /**
+     * Returns the successors of the given transformation
+     * @param identifier
+     * @return
+     */
+    protected LongArrayList getSuccessors(long identifier) {
+        return getSuccessors(identifier, true);
+    }
+
+    /**
+     * Returns the successors of the given transformation. If the transformation is not counted,
+     * it is neither counted as expanded nor are its successors counted, e.g. when only
+     * constructing paths.
+     * @param identifier
+     * @param count
+     * @return
+     */
+    protected LongArrayList getSuccessors(long identifier, boolean count) {
+        LongArrayList result = solutionSpace.getSuccessors(identifier);
+        if (count) {
+            countExpanded(identifier, result.size());
+        }
+        return result;
+    }
+
+    /**
+     * Positions the successor cursor at the given transformation and returns it. The cursor is
+     * shared, i.e. it is repositioned by each call to this method.
+     * @param identifier
+     * @return
+     */
+    protected AlgorithmSuccessorCursor getSuccessorCursor(long identifier) {
+        return getSuccessorCursor(identifier, true);
+    }
+
+    /**
+     * Positions the successor cursor at the given transformation and returns it. The cursor is
+     * shared, i.e. it is repositioned by each call to this method. If the transformation is not
+     * counted, it is neither counted as expanded nor are its successors counted, e.g. when
+     * only constructing paths.
+     * @param identifier
+     * @param count
+     * @return
+     */
+    protected AlgorithmSuccessorCursor getSuccessorCursor(long identifier, boolean count) {
+        if (cursor == null) {
+            cursor = new AlgorithmSuccessorCursor(solutionSpace);
+        }
+        cursor.reset(identifier);
+        if (count) {
+            this.counters[AlgorithmCounter.SUCCESSORS.ordinal()] += cursor.size();
+            if (profile != null) {
+                profile.add(cursor.getLevel(), ProfileMeasure.EXPANDED, 1);
+            }
+        }
+        return cursor;
+    }
+
+    /**
+     * Marks the current run as being terminated by its time limit
+     */
+    protected void setTimeout() {
+        this.timeout = true;
+    }
+
+    @Override
+    protected void progress(double progress) {
+        this.progress = progress;
+        super.progress(progress);
+    }
+
     /**
      * Search method
      */
@@ -83,11 +353,58 @@ public abstract class AlgorithmBenchmark extends AbstractAlgorithm {
         long previousId = getGlobalOptimum() == null ? -1 : getGlobalOptimum().getIdentifier();
         super.trackOptimum(arg0);
         long newId = getGlobalOptimum() == null ? -1 : getGlobalOptimum().getIdentifier();
-        if ((this instanceof AlgorithmLightning) && previousId != newId) {
-            double utility = Double.valueOf(getGlobalOptimum().getInformationLoss().toString());
-            this.discovery = (int) (System.currentTimeMillis() - time);
-            this.trackRecord.add(this.discovery);
-            this.trackRecord.add(utility);
+        if (previousId != newId) {
+            Transformation optimum = getGlobalOptimum();
+            this.optimum = optimum.getInformationLoss();
+            this.discovery = System.nanoTime() - time;
+            this.trackRecord.add(discovery, getCount(AlgorithmCounter.CHECKS), getUtility(this.optimum));
+            this.optima.add(newId);
+            Object event = AlgorithmEvents.begin(AlgorithmEvents.OPTIMUM);
+            if (event != null) {
+                AlgorithmEvents.commit(event, optimum.getIdentifier(), optimum.getLevel(), this.optimum.toString());
+            }
+        }
+    }
+
+    /**
+     * Returns the given information loss as a double, NaN if it is not supported or cannot be
+     * represented exactly
+     * @param loss
+     * @return
+     */
+    private double getUtility(InformationLoss<?> loss) {
+        try {
+            return InformationLossCodec.encode(loss);
+        } catch (IllegalArgumentException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Counts a check which has been started at the given time
+     * @param start
+     * @param transformation
+     * @param result
+     * @param event
+     */
+    private void countCheck(long start, Transformation transformation, NodeChecker.Result result, Object event) {
+        long duration = System.nanoTime() - start;
+        this.counters[AlgorithmCounter.CHECK_TIME.ordinal()] += duration;
+        this.counters[AlgorithmCounter.CHECKS.ordinal()]++;
+        int index = AlgorithmCounter.SNAPSHOTS.ordinal();
+        this.counters[index] = Math.max(this.counters[index], checker.getHistory().size());
+        boolean anonymous = Boolean.TRUE.equals(result.privacyModelFulfilled);
+        if (profile != null) {
+            int level = transformation.getLevel();
+            profile.add(level, ProfileMeasure.CHECKED, 1);
+            profile.add(level, ProfileMeasure.ANONYMOUS, anonymous ? 1 : 0);
+            profile.add(level, ProfileMeasure.TIME, duration);
+        }
+        if (event != null) {
+            AlgorithmEvents.commit(event, transformation.getIdentifier(), transformation.getLevel(), anonymous);
+        }
+        if (checkRecord != null && result.informationLoss != null) {
+            checkRecord.add(transformation.getIdentifier(), anonymous, getUtility(result.informationLoss));
         }
     }
 }
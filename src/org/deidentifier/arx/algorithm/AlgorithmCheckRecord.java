@@ -0,0 +1,114 @@
+/*
+ * Source code of the experiments from our 2016 paper 
+ * "Lightning: Utility-driven anonymization of high-dimensional data"
+ *      
+ * Copyright (C) 2015 Fabian Prasser, Raffael Bild, Johanna Eicher, Helmut Spengler, Florian Kohlmayer
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Records the results of the checks performed by a search: the identifier of each transformation,
+ * whether it is anonymous and its information loss. Backed by primitive arrays, so that recording
+ * is cheap enough to be performed during searches.
+ * 
+ * @author Fabian Prasser
+ */
+public class AlgorithmCheckRecord {
+
+    /** Bit marking anonymous transformations */
+    private static final long ANONYMOUS = 1L << 63;
+
+    /** Identifiers, including the bit marking anonymous transformations */
+    private long[]            keys;
+    /** Information loss */
+    private double[]          losses;
+    /** Number of entries */
+    private int               size;
+
+    /**
+     * Creates a new instance
+     */
+    public AlgorithmCheckRecord() {
+        this.keys = new long[1024];
+        this.losses = new double[1024];
+    }
+
+    /**
+     * Adds an entry
+     * @param identifier
+     * @param anonymous
+     * @param informationLoss
+     */
+    public void add(long identifier, boolean anonymous, double informationLoss) {
+        if (size == keys.length) {
+            this.keys = Arrays.copyOf(this.keys, size * 2);
+            this.losses = Arrays.copyOf(this.losses, size * 2);
+        }
+        this.keys[size] = anonymous ? identifier | ANONYMOUS : identifier;
+        this.losses[size] = informationLoss;
+        this.size++;
+    }
+
+    /**
+     * Returns the identifier of the transformation of the given entry
+     * @param index
+     * @return
+     */
+    public long getIdentifier(int index) {
+        checkIndex(index);
+        return keys[index] & ~ANONYMOUS;
+    }
+
+    /**
+     * Returns the information loss of the given entry, NaN if it is not numeric
+     * @param index
+     * @return
+     */
+    public double getInformationLoss(int index) {
+        checkIndex(index);
+        return losses[index];
+    }
+
+    /**
+     * Returns whether the transformation of the given entry is anonymous
+     * @param index
+     * @return
+     */
+    public boolean isAnonymous(int index) {
+        checkIndex(index);
+        return (keys[index] & ANONYMOUS) != 0;
+    }
+
+    /**
+     * Returns the number of entries
+     * @return
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks the given index
+     * @param index
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+    }
+}
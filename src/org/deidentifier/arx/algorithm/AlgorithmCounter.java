@@ -0,0 +1,84 @@
+/*
+ * Source code of the experiments from our 2016 paper 
+ * "Lightning: Utility-driven anonymization of high-dimensional data"
+ *      
+ * Copyright (C) 2015 Fabian Prasser, Raffael Bild, Johanna Eicher, Helmut Spengler, Florian Kohlmayer
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+/**
+ * The counters maintained by an algorithm during one search
+ * 
+ * @author Fabian Prasser
+ */
+public enum AlgorithmCounter {
+    /** Number of transformations checked */
+    CHECKS {
+        @Override
+        public String toString() {
+            return "Checks";
+        }
+    },
+    /** Time spent inside the node checker, in nanoseconds */
+    CHECK_TIME {
+        @Override
+        public String toString() {
+            return "Check time";
+        }
+    },
+    /** Maximal number of snapshots held by the history */
+    SNAPSHOTS {
+        @Override
+        public String toString() {
+            return "Snapshots";
+        }
+    },
+    /** Number of successors of expanded transformations, excluding the construction of paths */
+    SUCCESSORS {
+        @Override
+        public String toString() {
+            return "Successors";
+        }
+    },
+    /** Number of times a transformation was pruned by comparing a bound with the optimum */
+    PRUNED_BY_BOUND {
+        @Override
+        public String toString() {
+            return "Pruned by bound";
+        }
+    },
+    /** Number of times a transformation was pruned because of a property */
+    PRUNED_BY_PROPERTY {
+        @Override
+        public String toString() {
+            return "Pruned by property";
+        }
+    },
+    /** Maximal size of the frontier */
+    FRONTIER {
+        @Override
+        public String toString() {
+            return "Frontier";
+        }
+    },
+    /** Size of the property stores in bytes */
+    PROPERTY_STORE {
+        @Override
+        public String toString() {
+            return "Property store";
+        }
+    }
+}
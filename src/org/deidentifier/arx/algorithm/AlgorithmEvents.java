@@ -0,0 +1,188 @@
+/*
+ * Source code of the experiments from our 2016 paper 
+ * "Lightning: Utility-driven anonymization of high-dimensional data"
+ *      
+ * Copyright (C) 2015 Fabian Prasser, Raffael Bild, Johanna Eicher, Helmut Spengler, Florian Kohlmayer
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Custom events for Java Flight Recorder. As the code base targets Java 7, the event types are
+ * created at runtime via <code>jdk.jfr.EventFactory</code>. Events are only emitted if the system
+ * property <code>benchmark.jfr</code> is set and the JVM provides this API, otherwise
+ * {@link #begin(EventType)} returns null and no event objects are created.
+ * 
+ * @author Fabian Prasser
+ */
+public class AlgorithmEvents {
+
+    /**
+     * A type of event
+     * 
+     * @author Fabian Prasser
+     */
+    public static final class EventType {
+
+        /** The factory, null if events are disabled */
+        private final Object factory;
+
+        /**
+         * Creates a new instance
+         * @param name
+         * @param label
+         * @param fields Pairs of names and types
+         */
+        private EventType(String name, String label, Object... fields) {
+            Object factory = null;
+            if (ENABLED) {
+                try {
+                    List<Object> annotations = new ArrayList<Object>();
+                    annotations.add(ANNOTATION.newInstance(Class.forName("jdk.jfr.Name"), name));
+                    annotations.add(ANNOTATION.newInstance(Class.forName("jdk.jfr.Label"), label));
+                    annotations.add(ANNOTATION.newInstance(Class.forName("jdk.jfr.Category"), new String[] { "ARX", "Benchmark" }));
+                    List<Object> values = new ArrayList<Object>();
+                    for (int i = 0; i < fields.length; i += 2) {
+                        values.add(VALUE.newInstance(fields[i + 1], fields[i]));
+                    }
+                    factory = CREATE.invoke(null, annotations, values);
+                } catch (Exception e) {
+                    System.err.println("Cannot create event type " + name + ": " + e);
+                }
+            }
+            this.factory = factory;
+        }
+    }
+
+    /** Constructor of jdk.jfr.AnnotationElement */
+    private static final Constructor<?> ANNOTATION;
+    /** Constructor of jdk.jfr.ValueDescriptor */
+    private static final Constructor<?> VALUE;
+    /** jdk.jfr.EventFactory.create() */
+    private static final Method         CREATE;
+    /** jdk.jfr.EventFactory.newEvent() */
+    private static final Method         NEW_EVENT;
+    /** jdk.jfr.Event.begin() */
+    private static final Method         BEGIN;
+    /** jdk.jfr.Event.set() */
+    private static final Method         SET;
+    /** jdk.jfr.Event.commit() */
+    private static final Method         COMMIT;
+    /** Whether events are emitted */
+    private static final boolean        ENABLED;
+
+    static {
+        Constructor<?> annotation = null;
+        Constructor<?> value = null;
+        Method create = null;
+        Method newEvent = null;
+        Method begin = null;
+        Method set = null;
+        Method commit = null;
+        boolean enabled = false;
+        if (Boolean.getBoolean("benchmark.jfr")) {
+            try {
+                Class<?> factory = Class.forName("jdk.jfr.EventFactory");
+                Class<?> event = Class.forName("jdk.jfr.Event");
+                annotation = Class.forName("jdk.jfr.AnnotationElement").getConstructor(Class.class, Object.class);
+                value = Class.forName("jdk.jfr.ValueDescriptor").getConstructor(Class.class, String.class);
+                create = factory.getMethod("create", List.class, List.class);
+                newEvent = factory.getMethod("newEvent");
+                begin = event.getMethod("begin");
+                set = event.getMethod("set", int.class, Object.class);
+                commit = event.getMethod("commit");
+                enabled = true;
+            } catch (Exception e) {
+                System.err.println("Flight recorder events are not supported by this JVM: " + e);
+            }
+        }
+        ANNOTATION = annotation;
+        VALUE = value;
+        CREATE = create;
+        NEW_EVENT = newEvent;
+        BEGIN = begin;
+        SET = set;
+        COMMIT = commit;
+        ENABLED = enabled;
+    }
+
+    /** A transformation has been checked */
+    public static final EventType CHECK   = new EventType("org.deidentifier.arx.Check", "Transformation check",
+                                                          "identifier", long.class,
+                                                          "level", int.class,
+                                                          "anonymous", boolean.class);
+
+    /** The optimum has been improved */
+    public static final EventType OPTIMUM = new EventType("org.deidentifier.arx.Optimum", "Optimum improvement",
+                                                          "identifier", long.class,
+                                                          "level", int.class,
+                                                          "informationLoss", String.class);
+
+    /** A depth-first dive performed by Lightning */
+    public static final EventType DIVE    = new EventType("org.deidentifier.arx.Dive", "Lightning dive",
+                                                          "identifier", long.class,
+                                                          "level", int.class,
+                                                          "checks", long.class);
+
+    /** A phase of Flash */
+    public static final EventType PHASE   = new EventType("org.deidentifier.arx.Phase", "Flash phase",
+                                                          "phase", String.class,
+                                                          "identifier", long.class,
+                                                          "level", int.class,
+                                                          "checks", long.class);
+
+    /**
+     * Begins an event of the given type. Returns null if events are disabled.
+     * @param type
+     * @return
+     */
+    public static Object begin(EventType type) {
+        if (type.factory == null) {
+            return null;
+        }
+        try {
+            Object event = NEW_EVENT.invoke(type.factory);
+            BEGIN.invoke(event);
+            return event;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Ends and commits the given event with the given values, in the order of the fields.
+     * Ignores null events.
+     * @param event
+     * @param values
+     */
+    public static void commit(Object event, Object... values) {
+        if (event == null) {
+            return;
+        }
+        try {
+            for (int i = 0; i < values.length; i++) {
+                SET.invoke(event, i, values[i]);
+            }
+            COMMIT.invoke(event);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
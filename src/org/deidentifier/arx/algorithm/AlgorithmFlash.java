@@ -91,12 +91,14 @@ public class AlgorithmFlash extends AlgorithmBenchmark {
 
         // Add to queue
         queue.add(start);
+        countFrontier(queue.size());
 
         // While queue is not empty
         while (!queue.isEmpty()) {
 
             // Remove head and process
             Integer head = queue.poll();
+            countFrontier(queue.size());
             if (!skip(triggerSkip, solutionSpace.getTransformation(head))) {
 
                 // First phase
@@ -107,7 +109,7 @@ public class AlgorithmFlash extends AlgorithmBenchmark {
                 if (config.isLinearPhaseRequired() && (head != -1)) {
 
                     // Run linear search on head
-                    linearSearch(head);
+                    linearSearch(head, "linear");
                 }
             }
         }
@@ -130,7 +132,7 @@ public class AlgorithmFlash extends AlgorithmBenchmark {
                 transformation.setLowerBound(checker.getMetric().getLowerBound(transformation));
             }
         } else if (configuration.getTriggerCheck().appliesTo(transformation)) {
-            transformation.setChecked(checker.check(transformation));
+            transformation.setChecked(check(transformation));
             progress((double)++checked / (double)solutionSpace.getSize());
         }
 
@@ -141,6 +143,21 @@ public class AlgorithmFlash extends AlgorithmBenchmark {
         configuration.getTriggerTag().apply(transformation);
     }
 
+    /**
+     * Commits an event for a phase which started at the given transformation.
+     *
+     * @param event
+     * @param phase
+     * @param start
+     * @param checks The number of checks performed before the phase started
+     */
+    private void commit(Object event, String phase, int start, long checks) {
+        if (event != null) {
+            int level = solutionSpace.getTransformation(start).getLevel();
+            AlgorithmEvents.commit(event, phase, (long)start, level, getCount(AlgorithmCounter.CHECKS) - checks);
+        }
+    }
+
     /**
      * Checks a path binary.
      *
@@ -176,9 +193,10 @@ public class AlgorithmFlash extends AlgorithmBenchmark {
 
                 // Add nodes to queue
                 if (!transformation.hasProperty(anonymityProperty)) {
-                    for (final int up : getSortedSuccessors(identifier)) {
+                    for (final int up : getSortedSuccessors(identifier, true)) {
                         if (!skip(triggerSkip, solutionSpace.getTransformation(up))) {
                             queue.add(up);
+                            countFrontier(queue.size());
                         }
                     }
                 }
@@ -211,7 +229,7 @@ public class AlgorithmFlash extends AlgorithmBenchmark {
         boolean found = true;
         while (found) {
             found = false;
-            for (final int id : getSortedSuccessors(current)) {
+            for (final int id : getSortedSuccessors(current, false)) {
                 if (!skip(triggerSkip, solutionSpace.getTransformation(id))) {
                     current = id;
                     path.add(id);
@@ -224,14 +242,17 @@ public class AlgorithmFlash extends AlgorithmBenchmark {
     }
 
     /**
-     * Sorts pointers to successor nodes according to the strategy.
+     * Sorts pointers to successor nodes according to the strategy. The sorted successors are
+     * cached, the transformation is counted as expanded on each call with count set, i.e. not
+     * when only constructing paths.
      *
      * @param transformation
+     * @param count
      */
-    private int[] getSortedSuccessors(final int transformation) {
+    private int[] getSortedSuccessors(final int transformation, boolean count) {
         
         if (sortedSuccessors[transformation] == null) {
-            LongArrayList list = solutionSpace.getSuccessors(transformation);
+            LongArrayList list = getSuccessors(transformation, false);
             int[] result = new int[list.size()];
             for (int i=0; i<result.length; i++) {
                 result[i] = (int)list.getQuick(i);
@@ -239,6 +260,9 @@ public class AlgorithmFlash extends AlgorithmBenchmark {
             sort(result);
             sortedSuccessors[transformation] = result;
         }
+        if (count) {
+            countExpanded(transformation, sortedSuccessors[transformation].length);
+        }
         return sortedSuccessors[transformation];
     }
 
@@ -288,7 +312,7 @@ public class AlgorithmFlash extends AlgorithmBenchmark {
             checkAndTag(transformation, config.getLinearPhaseConfiguration());
 
             // DFS
-            for (final int child : getSortedSuccessors(start)) {
+            for (final int child : getSortedSuccessors(start, true)) {
                 if (!skip(triggerSkip, solutionSpace.getTransformation(child))) {
                     linearSearch(child);
                 }
@@ -299,6 +323,19 @@ public class AlgorithmFlash extends AlgorithmBenchmark {
         transformation.setProperty(solutionSpace.getPropertySuccessorsPruned());
     }
 
+    /**
+     * Implements a depth-first search and emits an event for the given phase.
+     *
+     * @param start
+     * @param phase
+     */
+    private void linearSearch(int start, String phase) {
+        Object event = AlgorithmEvents.begin(AlgorithmEvents.PHASE);
+        long checks = getCount(AlgorithmCounter.CHECKS);
+        linearSearch(start);
+        commit(event, phase, start, checks);
+    }
+
     /**
      * Returns whether a node should be skipped.
      *
@@ -310,6 +347,7 @@ public class AlgorithmFlash extends AlgorithmBenchmark {
 
         // If the trigger applies, skip
         if (trigger.appliesTo(transformation)) {
+            countPruned(AlgorithmCounter.PRUNED_BY_PROPERTY, transformation);
             return true;
         }
 
@@ -318,6 +356,7 @@ public class AlgorithmFlash extends AlgorithmBenchmark {
 
             // We skip, if we already know that this node has insufficient utility
             if (transformation.hasProperty(solutionSpace.getPropertyInsufficientUtility())) {
+                countPruned(AlgorithmCounter.PRUNED_BY_BOUND, transformation);
                 return true;
             }
         }
@@ -368,7 +407,7 @@ public class AlgorithmFlash extends AlgorithmBenchmark {
         Transformation top = solutionSpace.getTop();
 
         // Check bottom for speed and remember the result to prevent repeated checks
-        NodeChecker.Result result = checker.check(bottom);
+        NodeChecker.Result result = check(bottom);
         bottom.setProperty(solutionSpace.getPropertyForceSnapshot());
         bottom.setData(result);
 
@@ -378,9 +417,12 @@ public class AlgorithmFlash extends AlgorithmBenchmark {
 
                 // Run the correct phase
                 if (config.isBinaryPhaseRequired()) {
+                    Object event = AlgorithmEvents.begin(AlgorithmEvents.PHASE);
+                    long checks = getCount(AlgorithmCounter.CHECKS);
                     binarySearch(transformation, queue);
+                    commit(event, "binary", transformation, checks);
                 } else {
-                    linearSearch(transformation);
+                    linearSearch(transformation, "linear");
                 }
             }
         }
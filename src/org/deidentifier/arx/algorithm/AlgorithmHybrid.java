@@ -0,0 +1,175 @@
+/*
+ * Source code of the experiments from our 2016 paper 
+ * "Lightning: Utility-driven anonymization of high-dimensional data"
+ *      
+ * Copyright (C) 2015 Fabian Prasser, Raffael Bild, Johanna Eicher, Helmut Spengler, Florian Kohlmayer
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.deidentifier.arx.framework.check.NodeChecker;
+import org.deidentifier.arx.framework.lattice.SolutionSpace;
+import org.deidentifier.arx.framework.lattice.Transformation;
+
+import cern.colt.GenericSorting;
+import cern.colt.Swapper;
+import cern.colt.function.IntComparator;
+import de.linearbits.jhpl.PredictiveProperty;
+
+/**
+ * This class implements a hybrid of Flash and Lightning. Anonymous transformations are located
+ * with Flash's binary search on greedily constructed paths, starting from the bottom and from
+ * each of its successors. Lightning's utility-driven best-first search, including pruning with
+ * lower bounds, is then started from the lowest anonymous transformations found on these paths.
+ * If no anonymous transformation is found, the search starts from the bottom, as in Lightning.
+ * 
+ * @author Fabian Prasser
+ */
+public class AlgorithmHybrid extends AlgorithmLightning {
+
+    /** Property */
+    private final PredictiveProperty propertyAnonymous;
+
+    /** The strategy */
+    private final FLASHStrategy      strategy;
+
+    /**
+     * Creates a new instance
+     * @param space
+     * @param checker
+     * @param timeLimit Set it to zero to search for a minimally anonymous solution
+     * @param strategy
+     */
+    public AlgorithmHybrid(SolutionSpace space, NodeChecker checker, int timeLimit, FLASHStrategy strategy) {
+        super(space, checker, timeLimit);
+        if (space.getSize() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException();
+        }
+        this.propertyAnonymous = space.getPropertyAnonymous();
+        this.strategy = strategy;
+    }
+
+    /**
+     * Performs a binary search for the lowest anonymous transformation on the given path.
+     * Returns its identifier, -1 if there is none.
+     * 
+     * @param path
+     * @return
+     */
+    private int checkPath(List<Integer> path) {
+        int low = 0;
+        int high = path.size() - 1;
+        int lastAnonymousIdentifier = -1;
+        while (low <= high && !isTerminated()) {
+            final int mid = (low + high) / 2;
+            final int identifier = path.get(mid);
+            Transformation transformation = solutionSpace.getTransformation(identifier);
+            assureChecked(transformation);
+            if (transformation.hasProperty(propertyAnonymous)) {
+                lastAnonymousIdentifier = identifier;
+                high = mid - 1;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return lastAnonymousIdentifier;
+    }
+
+    /**
+     * Greedily finds a path to the top node.
+     * 
+     * @param current The node to start the path with. Will be included
+     * @return The path as a list
+     */
+    private List<Integer> findPath(int current) {
+        List<Integer> path = new ArrayList<Integer>();
+        path.add(current);
+        int[] successors = getSortedSuccessors(current);
+        while (successors.length > 0) {
+            current = successors[0];
+            path.add(current);
+            successors = getSortedSuccessors(current);
+        }
+        return path;
+    }
+
+    /**
+     * Returns the successors of the given transformation, sorted according to the strategy. The
+     * transformation is not counted as expanded, as this is only used for constructing paths.
+     * 
+     * @param transformation
+     * @return
+     */
+    private int[] getSortedSuccessors(int transformation) {
+        AlgorithmSuccessorCursor successors = getSuccessorCursor(transformation, false);
+        final int[] result = new int[successors.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (int) successors.getIdentifier(i);
+        }
+        GenericSorting.mergeSort(0, result.length, new IntComparator() {
+            @Override
+            public int compare(int arg0, int arg1) {
+                return strategy.compare(result[arg0], result[arg1]);
+            }
+        }, new Swapper() {
+            @Override
+            public void swap(int arg0, int arg1) {
+                int temp = result[arg0];
+                result[arg0] = result[arg1];
+                result[arg1] = temp;
+            }
+        });
+        return result;
+    }
+
+    @Override
+    protected void initialize(PriorityQueue<Long> queue) {
+
+        // Start paths at the bottom and at its successors
+        int bottom = (int) solutionSpace.getBottom().getIdentifier();
+        List<Integer> starts = new ArrayList<Integer>();
+        starts.add(bottom);
+        for (int successor : getSortedSuccessors(bottom)) {
+            starts.add(successor);
+        }
+
+        // Locate anonymous transformations
+        for (int start : starts) {
+            Object event = AlgorithmEvents.begin(AlgorithmEvents.PHASE);
+            long checks = getCount(AlgorithmCounter.CHECKS);
+            int border = checkPath(findPath(start));
+            if (event != null) {
+                int level = solutionSpace.getTransformation(start).getLevel();
+                AlgorithmEvents.commit(event, "binary", (long) start, level, getCount(AlgorithmCounter.CHECKS) - checks);
+            }
+            if (border != -1 && !queue.contains((long) border)) {
+                queue.add((long) border);
+                countFrontier(queue.size());
+            }
+            if (isTerminated()) {
+                return;
+            }
+        }
+
+        // Fall back to the bottom
+        if (queue.isEmpty()) {
+            super.initialize(queue);
+        }
+    }
+}
@@ -27,7 +27,6 @@ import org.deidentifier.arx.framework.check.history.History.StorageStrategy;
 import org.deidentifier.arx.framework.lattice.SolutionSpace;
 import org.deidentifier.arx.framework.lattice.Transformation;
 
-import cern.colt.list.LongArrayList;
 import de.linearbits.jhpl.PredictiveProperty;
 
 
@@ -43,15 +42,15 @@ import de.linearbits.jhpl.PredictiveProperty;
 public class AlgorithmLightning extends AlgorithmBenchmark{
 
     /** Property */
-    private final PredictiveProperty propertyChecked;
-    /** Property */
-    private final PredictiveProperty propertyExpanded;
+    private final PredictiveProperty     propertyChecked;
+    /** Transformations which have been expanded */
+    private final AlgorithmPropertyStore propertyExpanded;
     /** The number indicating how often a depth-first-search will be performed */
-    private final int                stepping;
+    private final int                    stepping;
     /** Time limit */
-    private final int                timeLimit;
+    private final int                    timeLimit;
     /** The start time */
-    private long                     timeStart;
+    private long                         timeStart;
 
     /**
     * Constructor
@@ -65,7 +64,7 @@ public class AlgorithmLightning extends AlgorithmBenchmark{
         int stepping = space.getTop().getLevel();
         this.stepping = stepping > 0 ? stepping : 1;
         this.propertyChecked = space.getPropertyChecked();
-        this.propertyExpanded = space.getPropertyExpanded();
+        this.propertyExpanded = createPropertyStore();
         this.solutionSpace.setAnonymityPropertyPredictable(false);
         this.timeLimit = timeLimit;
     }
@@ -74,9 +73,9 @@ public class AlgorithmLightning extends AlgorithmBenchmark{
     * Makes sure that the given Transformation has been checked
     * @param transformation
     */
-    private void assureChecked(final Transformation transformation) {
+    protected void assureChecked(final Transformation transformation) {
         if (!transformation.hasProperty(propertyChecked)) {
-            transformation.setChecked(checker.check(transformation, true));
+            transformation.setChecked(check(transformation, true));
             trackOptimum(transformation);
             progress((double)(System.currentTimeMillis() - timeStart) / (double)timeLimit);
         }
@@ -88,12 +87,13 @@ public class AlgorithmLightning extends AlgorithmBenchmark{
     * @param transformation
     */
     private void dfs(PriorityQueue<Long> queue, Transformation transformation) {
-        if ((timeLimit != 0 && getTime() > timeLimit) || timeLimit == 0 && getGlobalOptimum() != null) {
+        if (isTerminated()) {
             return;
         }
         Transformation next = expand(queue, transformation);
         if (next != null) {
             queue.remove(next);
+            countFrontier(queue.size());
             dfs(queue, next);
         }
     }
@@ -107,22 +107,23 @@ public class AlgorithmLightning extends AlgorithmBenchmark{
     private Transformation expand(PriorityQueue<Long> queue, Transformation transformation) {
         Transformation result = null;
         
-        LongArrayList list = solutionSpace.getSuccessors(transformation.getIdentifier());
-        for (int i=0; i<list.size(); i++) {
-            long id = list.getQuick(i);
-            Transformation successor = solutionSpace.getTransformation(id);
-            if (!successor.hasProperty(propertyExpanded)) {
+        AlgorithmSuccessorCursor successors = getSuccessorCursor(transformation.getIdentifier());
+        for (int i=0; i<successors.size(); i++) {
+            long id = successors.getIdentifier(i);
+            if (!propertyExpanded.contains(id)) {
+                Transformation successor = solutionSpace.getTransformation(id);
                 assureChecked(successor);
                 queue.add(successor.getIdentifier());
+                countFrontier(queue.size());
                 if (result == null || successor.getInformationLoss().compareTo(result.getInformationLoss()) < 0) {
                     result = successor;
                 }
             }
-            if ((timeLimit != 0 && getTime() > timeLimit) || timeLimit == 0 && getGlobalOptimum() != null) {
+            if (isTerminated()) {
                 return null;
             }
         }
-        transformation.setProperty(propertyExpanded);
+        propertyExpanded.add(transformation.getIdentifier());
         return result;
     }
 
@@ -133,6 +134,30 @@ public class AlgorithmLightning extends AlgorithmBenchmark{
     private int getTime() {
         return (int)(System.currentTimeMillis() - timeStart);
     }
+
+    /**
+     * Adds the transformations from which the search starts to the queue
+     * @param queue
+     */
+    protected void initialize(PriorityQueue<Long> queue) {
+        Transformation bottom = solutionSpace.getBottom();
+        assureChecked(bottom);
+        queue.add(bottom.getIdentifier());
+        countFrontier(queue.size());
+    }
+
+    /**
+     * Returns whether the search must be terminated, i.e. whether the time limit has been
+     * reached or a minimally anonymous solution has been found
+     * @return
+     */
+    protected boolean isTerminated() {
+        if (timeLimit != 0 && getTime() > timeLimit) {
+            setTimeout();
+            return true;
+        }
+        return timeLimit == 0 && getGlobalOptimum() != null;
+    }
     /**
     * Returns whether we can prune this Transformation
     * @param transformation
@@ -148,7 +173,14 @@ public class AlgorithmLightning extends AlgorithmBenchmark{
         if (getGlobalOptimum() != null) {
             if (metricMonotonic) prune = transformation.getLowerBound().compareTo(getGlobalOptimum().getInformationLoss()) >= 0;
         }
-        return (prune || transformation.hasProperty(propertyExpanded));
+        if (prune) {
+            countPruned(AlgorithmCounter.PRUNED_BY_BOUND, transformation);
+            return true;
+        } else if (propertyExpanded.contains(transformation.getIdentifier())) {
+            countPruned(AlgorithmCounter.PRUNED_BY_PROPERTY, transformation);
+            return true;
+        }
+        return false;
     }
     
     @Override
@@ -160,22 +192,26 @@ public class AlgorithmLightning extends AlgorithmBenchmark{
                 return solutionSpace.getUtility(arg0).compareTo(solutionSpace.getUtility(arg1));
             }
         });
-        Transformation bottom = solutionSpace.getBottom();
-        assureChecked(bottom);
-        queue.add(bottom.getIdentifier());
+        initialize(queue);
         Transformation next;
         int step = 0;
         Long nextId;
         while ((nextId = queue.poll()) != null) {
+            countFrontier(queue.size());
             next = solutionSpace.getTransformation(nextId);
             if (!prune(next)) {
                 step++;
                 if (step % stepping == 0) {
+                    Object event = AlgorithmEvents.begin(AlgorithmEvents.DIVE);
+                    long checks = getCount(AlgorithmCounter.CHECKS);
                     dfs(queue, next);
+                    if (event != null) {
+                        AlgorithmEvents.commit(event, next.getIdentifier(), next.getLevel(), getCount(AlgorithmCounter.CHECKS) - checks);
+                    }
                 } else {
                     expand(queue, next);
                 }
-                if ((timeLimit != 0 && getTime() > timeLimit) || timeLimit == 0 && getGlobalOptimum() != null) {
+                if (isTerminated()) {
                     return;
                 }
             }
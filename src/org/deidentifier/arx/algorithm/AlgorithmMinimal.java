@@ -24,7 +24,6 @@ import org.deidentifier.arx.framework.check.history.History.StorageStrategy;
 import org.deidentifier.arx.framework.lattice.SolutionSpace;
 import org.deidentifier.arx.framework.lattice.Transformation;
 
-import cern.colt.list.LongArrayList;
 import de.linearbits.jhpl.PredictiveProperty;
 
 /**
@@ -40,7 +39,9 @@ import de.linearbits.jhpl.PredictiveProperty;
 public class AlgorithmMinimal extends AlgorithmBenchmark{
    
     /** Property */
-    private final PredictiveProperty propertyChecked;
+    private final PredictiveProperty     propertyChecked;
+    /** Transformations which have been checked, allows testing successors without materializing them */
+    private final AlgorithmPropertyStore storeChecked;
     
     /**
     * Constructor
@@ -50,6 +51,7 @@ public class AlgorithmMinimal extends AlgorithmBenchmark{
     public AlgorithmMinimal(SolutionSpace space, NodeChecker checker) {
         super(space, checker);
         this.propertyChecked = space.getPropertyChecked();
+        this.storeChecked = createPropertyStore();
         this.checker.getHistory().setStorageStrategy(StorageStrategy.ALL);
         this.solutionSpace.setAnonymityPropertyPredictable(false);
     }
@@ -60,7 +62,8 @@ public class AlgorithmMinimal extends AlgorithmBenchmark{
     */
     private void assureChecked(final Transformation transformation) {
         if (!transformation.hasProperty(propertyChecked)) {
-            transformation.setChecked(checker.check(transformation, true));
+            transformation.setChecked(check(transformation, true));
+            storeChecked.add(transformation.getIdentifier());
             trackOptimum(transformation);
         }
     }
@@ -94,12 +97,11 @@ public class AlgorithmMinimal extends AlgorithmBenchmark{
         Transformation result = null;
 
         // Find
-        LongArrayList list = solutionSpace.getSuccessors(transformation.getIdentifier());
-        for (int i=0; i<list.size(); i++) {
-            long id = list.getQuick(i);
-        
-            Transformation successor = solutionSpace.getTransformation(id);
-            if (!successor.hasProperty(propertyChecked)) {
+        AlgorithmSuccessorCursor successors = getSuccessorCursor(transformation.getIdentifier());
+        for (int i=0; i<successors.size(); i++) {
+            long id = successors.getIdentifier(i);
+            if (!storeChecked.contains(id)) {
+                Transformation successor = solutionSpace.getTransformation(id);
                 assureChecked(successor);
                 if (result == null || successor.getInformationLoss().compareTo(result.getInformationLoss()) < 0) {
                     result = successor;
@@ -0,0 +1,136 @@
+/*
+ * Source code of the experiments from our 2016 paper 
+ * "Lightning: Utility-driven anonymization of high-dimensional data"
+ *      
+ * Copyright (C) 2015 Fabian Prasser, Raffael Bild, Johanna Eicher, Helmut Spengler, Florian Kohlmayer
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+/**
+ * Profile of the exploration of the solution space, with one histogram per measure over the
+ * levels of the lattice. Only recorded if the system property <code>benchmark.profile</code>
+ * is set.
+ * 
+ * @author Fabian Prasser
+ */
+public class AlgorithmProfile {
+
+    /**
+     * The measures of the profile
+     * @author Fabian Prasser
+     */
+    public static enum ProfileMeasure {
+        /** Number of transformations checked */
+        CHECKED {
+            @Override
+            public String toString() {
+                return "Checked";
+            }
+        },
+        /** Number of transformations found to be anonymous */
+        ANONYMOUS {
+            @Override
+            public String toString() {
+                return "Anonymous";
+            }
+        },
+        /** Number of times a transformation was pruned */
+        PRUNED {
+            @Override
+            public String toString() {
+                return "Pruned";
+            }
+        },
+        /** Number of transformations whose successors were generated */
+        EXPANDED {
+            @Override
+            public String toString() {
+                return "Expanded";
+            }
+        },
+        /** Time spent checking, in nanoseconds */
+        TIME {
+            @Override
+            public String toString() {
+                return "Time";
+            }
+        }
+    }
+
+    /** Whether profiles are recorded */
+    public static final boolean ENABLED  = Boolean.getBoolean("benchmark.profile");
+
+    /** Number of measures */
+    private static final int    MEASURES = ProfileMeasure.values().length;
+
+    /** Values, indexed by level * MEASURES + ordinal */
+    private final long[]        values;
+
+    /**
+     * Creates a new instance
+     * @param levels
+     */
+    public AlgorithmProfile(int levels) {
+        this.values = new long[levels * MEASURES];
+    }
+
+    /**
+     * Creates a new instance from the representation returned by {@link #toArray()}
+     * @param values
+     */
+    public AlgorithmProfile(long[] values) {
+        if (values.length % MEASURES != 0) {
+            throw new IllegalArgumentException("Invalid number of values: " + values.length);
+        }
+        this.values = values.clone();
+    }
+
+    /**
+     * Returns the value of the given measure for the given level
+     * @param level
+     * @param measure
+     * @return
+     */
+    public long get(int level, ProfileMeasure measure) {
+        return values[level * MEASURES + measure.ordinal()];
+    }
+
+    /**
+     * Returns the number of levels
+     * @return
+     */
+    public int getLevels() {
+        return values.length / MEASURES;
+    }
+
+    /**
+     * Returns all values, indexed by level * number of measures + ordinal of the measure
+     * @return
+     */
+    public long[] toArray() {
+        return values.clone();
+    }
+
+    /**
+     * Adds the given amount to the given measure for the given level
+     * @param level
+     * @param measure
+     * @param amount
+     */
+    void add(int level, ProfileMeasure measure, long amount) {
+        values[level * MEASURES + measure.ordinal()] += amount;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Source code of the experiments from our 2016 paper 
+ * "Lightning: Utility-driven anonymization of high-dimensional data"
+ *      
+ * Copyright (C) 2015 Fabian Prasser, Raffael Bild, Johanna Eicher, Helmut Spengler, Florian Kohlmayer
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+/**
+ * A set of transformations which have a certain property, implemented as an open-addressing
+ * hash set of identifiers. In contrast to the properties of the solution space, memory
+ * consumption is proportional to the number of transformations visited, not to the size of
+ * the solution space.
+ * 
+ * @author Fabian Prasser
+ */
+public class AlgorithmPropertyStore {
+
+    /** Initial capacity */
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    /** Identifiers plus one, zero marks empty slots */
+    private long[]           keys             = new long[INITIAL_CAPACITY];
+
+    /** Number of transformations */
+    private int              size             = 0;
+
+    /**
+     * Adds the given transformation
+     * @param identifier
+     */
+    public void add(long identifier) {
+        if (size >= keys.length >>> 1) {
+            rehash(keys.length << 1);
+        }
+        if (insert(keys, identifier + 1)) {
+            size++;
+        }
+    }
+
+    /**
+     * Returns whether the given transformation has been added
+     * @param identifier
+     * @return
+     */
+    public boolean contains(long identifier) {
+        long key = identifier + 1;
+        int mask = keys.length - 1;
+        int slot = getSlot(key, mask);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of bytes used by this store
+     * @return
+     */
+    public long getFootprint() {
+        return keys.length * 8L;
+    }
+
+    /**
+     * Returns the number of transformations
+     * @return
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the initial slot for the given key
+     * @param key
+     * @param mask
+     * @return
+     */
+    private int getSlot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * Inserts the given key, returns whether it was not contained
+     * @param keys
+     * @param key
+     * @return
+     */
+    private boolean insert(long[] keys, long key) {
+        int mask = keys.length - 1;
+        int slot = getSlot(key, mask);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        return true;
+    }
+
+    /**
+     * Moves all keys into a table of the given capacity
+     * @param capacity
+     */
+    private void rehash(int capacity) {
+        long[] result = new long[capacity];
+        for (long key : keys) {
+            if (key != 0) {
+                insert(result, key);
+            }
+        }
+        keys = result;
+    }
+}
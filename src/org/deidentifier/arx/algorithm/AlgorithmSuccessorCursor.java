@@ -0,0 +1,169 @@
+/*
+ * Source code of the experiments from our 2016 paper 
+ * "Lightning: Utility-driven anonymization of high-dimensional data"
+ *      
+ * Copyright (C) 2015 Fabian Prasser, Raffael Bild, Johanna Eicher, Helmut Spengler, Florian Kohlmayer
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+import org.deidentifier.arx.framework.lattice.SolutionSpace;
+
+/**
+ * Enumerates the successors of transformations without allocating objects. Identifiers of
+ * transformations are mixed-radix encodings of their generalization vectors, which are decoded
+ * using the multipliers of the dimensions. Successors are enumerated in the order of the
+ * dimensions which have been generalized, as in the solution space. The cursor is reused, i.e.
+ * the successors are only valid until it is positioned at the next transformation.
+ * 
+ * @author Fabian Prasser
+ */
+public class AlgorithmSuccessorCursor {
+
+    /** Identifier of the bottom transformation */
+    private final long   bottom;
+
+    /** Level of the bottom transformation */
+    private final int    bottomLevel;
+
+    /** Multiplier of each dimension, zero for dimensions with only one level */
+    private final long[] multipliers;
+
+    /** Number of levels above the minimal level for each dimension */
+    private final int[]  ranges;
+
+    /** Dimensions with more than one level, ordered by decreasing multiplier */
+    private final int[]  order;
+
+    /** Levels above the minimal level of the current transformation */
+    private final int[]  digits;
+
+    /** Identifiers of the successors */
+    private final long[] identifiers;
+
+    /** Dimensions which have been generalized to obtain the successors */
+    private final int[]  dimensions;
+
+    /** Number of successors */
+    private int          size;
+
+    /** Level of the current transformation */
+    private int          level;
+
+    /**
+     * Creates a new instance
+     * @param space
+     */
+    public AlgorithmSuccessorCursor(SolutionSpace space) {
+
+        // Determine the multipliers
+        int[] min = space.getBottom().getGeneralization();
+        int[] max = space.getTop().getGeneralization();
+        this.bottom = space.getBottom().getIdentifier();
+        this.bottomLevel = space.getBottom().getLevel();
+        this.multipliers = new long[min.length];
+        this.ranges = new int[min.length];
+        int variable = 0;
+        for (int i = 0; i < min.length; i++) {
+            ranges[i] = max[i] - min[i];
+            if (ranges[i] > 0) {
+                int[] generalization = min.clone();
+                generalization[i]++;
+                multipliers[i] = space.getTransformation(generalization).getIdentifier() - bottom;
+                variable++;
+            }
+        }
+
+        // Order by decreasing multiplier
+        this.order = new int[variable];
+        variable = 0;
+        for (int i = 0; i < min.length; i++) {
+            if (ranges[i] > 0) {
+                int index = variable++;
+                while (index > 0 && multipliers[order[index - 1]] < multipliers[i]) {
+                    order[index] = order[index - 1];
+                    index--;
+                }
+                order[index] = i;
+            }
+        }
+
+        // Buffers
+        this.digits = new int[min.length];
+        this.identifiers = new long[min.length];
+        this.dimensions = new int[min.length];
+    }
+
+    /**
+     * Returns the dimension which has been generalized to obtain the given successor
+     * @param index
+     * @return
+     */
+    public int getDimension(int index) {
+        return dimensions[index];
+    }
+
+    /**
+     * Returns the identifier of the given successor
+     * @param index
+     * @return
+     */
+    public long getIdentifier(int index) {
+        return identifiers[index];
+    }
+
+    /**
+     * Returns the level of the current transformation
+     * @return
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Positions the cursor at the given transformation
+     * @param identifier
+     */
+    public void reset(long identifier) {
+
+        // Decode
+        long remainder = identifier - bottom;
+        level = bottomLevel;
+        for (int dimension : order) {
+            int digit = (int) (remainder / multipliers[dimension]);
+            remainder -= digit * multipliers[dimension];
+            digits[dimension] = digit;
+            level += digit;
+        }
+
+        // Enumerate
+        size = 0;
+        for (int dimension = 0; dimension < ranges.length; dimension++) {
+            if (digits[dimension] < ranges[dimension]) {
+                identifiers[size] = identifier + multipliers[dimension];
+                dimensions[size] = dimension;
+                size++;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of successors of the current transformation
+     * @return
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Source code of the experiments from our 2016 paper 
+ * "Lightning: Utility-driven anonymization of high-dimensional data"
+ *      
+ * Copyright (C) 2015 Fabian Prasser, Raffael Bild, Johanna Eicher, Helmut Spengler, Florian Kohlmayer
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.algorithm;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * The track record of a search: one entry per improvement of the optimum, consisting of the
+ * time since the start of the search in nanoseconds, the number of checks performed so far and
+ * the utility of the new optimum. Backed by primitive arrays.
+ * 
+ * @author Fabian Prasser
+ */
+public class AlgorithmTrackRecord {
+
+    /** Magic number of the binary format */
+    private static final int MAGIC   = 0x41525854;
+
+    /** Version of the binary format */
+    private static final int VERSION = 1;
+
+    /**
+     * Reads a track record from its binary representation
+     * @param input
+     * @return
+     * @throws IOException
+     */
+    public static AlgorithmTrackRecord read(InputStream input) throws IOException {
+        DataInputStream stream = new DataInputStream(input);
+        if (stream.readInt() != MAGIC) {
+            throw new IOException("Not a track record");
+        }
+        int version = stream.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported version of track record: " + version);
+        }
+        int size = stream.readInt();
+        AlgorithmTrackRecord result = new AlgorithmTrackRecord(size);
+        for (int i = 0; i < size; i++) {
+            result.add(stream.readLong(), stream.readLong(), stream.readDouble());
+        }
+        return result;
+    }
+
+    /** Times in nanoseconds */
+    private long[]   times;
+    /** Number of checks */
+    private long[]   checks;
+    /** Utilities */
+    private double[] utilities;
+    /** Number of entries */
+    private int      size;
+
+    /**
+     * Creates a new instance
+     */
+    public AlgorithmTrackRecord() {
+        this(16);
+    }
+
+    /**
+     * Creates a new instance
+     * @param capacity
+     */
+    public AlgorithmTrackRecord(int capacity) {
+        capacity = Math.max(capacity, 1);
+        this.times = new long[capacity];
+        this.checks = new long[capacity];
+        this.utilities = new double[capacity];
+    }
+
+    /**
+     * Adds an entry
+     * @param time in nanoseconds
+     * @param checks
+     * @param utility
+     */
+    public void add(long time, long checks, double utility) {
+        if (size == times.length) {
+            int capacity = size * 2;
+            this.times = Arrays.copyOf(this.times, capacity);
+            this.checks = Arrays.copyOf(this.checks, capacity);
+            this.utilities = Arrays.copyOf(this.utilities, capacity);
+        }
+        this.times[size] = time;
+        this.checks[size] = checks;
+        this.utilities[size] = utility;
+        this.size++;
+    }
+
+    /**
+     * Returns the number of checks performed until the given entry
+     * @param index
+     * @return
+     */
+    public long getChecks(int index) {
+        checkIndex(index);
+        return checks[index];
+    }
+
+    /**
+     * Returns the time of the given entry in nanoseconds
+     * @param index
+     * @return
+     */
+    public long getTime(int index) {
+        checkIndex(index);
+        return times[index];
+    }
+
+    /**
+     * Returns the time of the given entry in milliseconds
+     * @param index
+     * @return
+     */
+    public double getTimeMillis(int index) {
+        return getTime(index) / 1000000d;
+    }
+
+    /**
+     * Returns the utility of the given entry
+     * @param index
+     * @return
+     */
+    public double getUtility(int index) {
+        checkIndex(index);
+        return utilities[index];
+    }
+
+    /**
+     * Returns whether the track record is empty
+     * @return
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of entries
+     * @return
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Writes the binary representation of this track record
+     * @param output
+     * @throws IOException
+     */
+    public void write(OutputStream output) throws IOException {
+        DataOutputStream stream = new DataOutputStream(output);
+        stream.writeInt(MAGIC);
+        stream.writeInt(VERSION);
+        stream.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            stream.writeLong(times[i]);
+            stream.writeLong(checks[i]);
+            stream.writeDouble(utilities[i]);
+        }
+        stream.flush();
+    }
+
+    /**
+     * Checks the given index
+     * @param index
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Source code of the experiments from our 2016 paper 
+ * "Lightning: Utility-driven anonymization of high-dimensional data"
+ *      
+ * Copyright (C) 2015 Fabian Prasser, Raffael Bild, Johanna Eicher, Helmut Spengler, Florian Kohlmayer
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.analysis;
+
+import java.util.Arrays;
+
+import org.deidentifier.arx.BenchmarkStore;
+
+/**
+ * Aggregates the results of an experiment in a single pass. Rows are grouped by the values of
+ * the given dimensions. For each group, the number of rows, the rows themselves, as well as the
+ * sums and the products of the given measures are maintained in primitive arrays, from which all
+ * tables of an analysis can be served.
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkAggregation {
+
+    /** The store */
+    private final BenchmarkStore store;
+
+    /** The dimensions */
+    private final String[]       dimensions;
+
+    /** The measures */
+    private final String[]       measures;
+
+    /** Number of distinct values per dimension */
+    private final int[]          radix;
+
+    /** Number of rows per group */
+    private final int[]          counts;
+
+    /** Sums per group and measure */
+    private final double[]       sums;
+
+    /** Products of the values plus one per group and measure */
+    private final double[]       products;
+
+    /** Rows per group */
+    private final int[][]        rows;
+
+    /**
+     * Creates a new instance
+     * @param store
+     * @param dimensions
+     * @param measures
+     */
+    public BenchmarkAggregation(BenchmarkStore store, String[] dimensions, String... measures) {
+
+        // Prepare
+        this.store = store;
+        this.dimensions = dimensions;
+        this.measures = measures;
+        this.radix = new int[dimensions.length];
+        long groups = 1;
+        for (int i = 0; i < dimensions.length; i++) {
+            radix[i] = store.getDistinctValues(dimensions[i]).length;
+            groups *= radix[i];
+            if (groups > Integer.MAX_VALUE / Math.max(1, measures.length)) {
+                throw new IllegalArgumentException("Too many groups");
+            }
+        }
+        this.counts = new int[(int) groups];
+        this.sums = new double[counts.length * measures.length];
+        this.products = new double[counts.length * measures.length];
+        Arrays.fill(products, 1d);
+
+        // Aggregate
+        int[] keys = new int[store.size()];
+        for (int row = 0; row < keys.length; row++) {
+            int key = 0;
+            for (int i = 0; i < dimensions.length; i++) {
+                key = key * radix[i] + store.getCode(dimensions[i], row);
+            }
+            keys[row] = key;
+            counts[key]++;
+            int offset = key * measures.length;
+            for (int i = 0; i < measures.length; i++) {
+                double value = store.getDouble(measures[i], row);
+                sums[offset + i] += value;
+                products[offset + i] *= value + 1d;
+            }
+        }
+
+        // Collect rows
+        this.rows = new int[counts.length][];
+        for (int key = 0; key < counts.length; key++) {
+            rows[key] = new int[counts[key]];
+        }
+        int[] sizes = new int[counts.length];
+        for (int row = 0; row < keys.length; row++) {
+            int key = keys[row];
+            rows[key][sizes[key]++] = row;
+        }
+    }
+
+    /**
+     * Returns the number of rows in the given group
+     * @param group The values of the dimensions
+     * @return
+     */
+    public int getCount(String... group) {
+        int key = getKey(group);
+        return key == -1 ? 0 : counts[key];
+    }
+
+    /**
+     * Returns the geometric mean of the values of the given measure plus one, minus one. Returns
+     * NaN if the group is empty.
+     * @param measure
+     * @param group The values of the dimensions
+     * @return
+     */
+    public double getGeometricMean(String measure, String... group) {
+        int key = getKey(group);
+        int count = key == -1 ? 0 : counts[key];
+        if (count == 0) {
+            return Double.NaN;
+        }
+        double product = products[key * measures.length + getIndex(measure)];
+        return Math.pow(product, 1d / count) - 1d;
+    }
+
+    /**
+     * Returns the arithmetic mean of the values of the given measure
+     * @param measure
+     * @param group The values of the dimensions
+     * @return
+     */
+    public double getMean(String measure, String... group) {
+        return getSum(measure, group) / getCount(group);
+    }
+
+    /**
+     * Returns the rows of the given group, in ascending order
+     * @param group The values of the dimensions
+     * @return
+     */
+    public int[] getRows(String... group) {
+        int key = getKey(group);
+        return key == -1 ? new int[0] : rows[key];
+    }
+
+    /**
+     * Returns the store
+     * @return
+     */
+    public BenchmarkStore getStore() {
+        return store;
+    }
+
+    /**
+     * Returns the sum of the values of the given measure
+     * @param measure
+     * @param group The values of the dimensions
+     * @return
+     */
+    public double getSum(String measure, String... group) {
+        int key = getKey(group);
+        return key == -1 ? 0d : sums[key * measures.length + getIndex(measure)];
+    }
+
+    /**
+     * Returns the index of the given measure
+     * @param measure
+     * @return
+     */
+    private int getIndex(String measure) {
+        for (int i = 0; i < measures.length; i++) {
+            if (measures[i].equals(measure)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown measure: " + measure);
+    }
+
+    /**
+     * Returns the key of the given group, -1 if it does not occur
+     * @param group
+     * @return
+     */
+    private int getKey(String[] group) {
+        if (group.length != dimensions.length) {
+            throw new IllegalArgumentException("Group must specify a value for each dimension");
+        }
+        int key = 0;
+        for (int i = 0; i < dimensions.length; i++) {
+            int code = store.getCode(dimensions[i], group[i]);
+            if (code == -1) {
+                return -1;
+            }
+            key = key * radix[i] + code;
+        }
+        return key;
+    }
+}
@@ -23,16 +23,11 @@ import java.io.File;
 import java.io.IOException;
 import java.text.DecimalFormat;
 import java.text.ParseException;
-import java.util.Iterator;
 
+import org.deidentifier.arx.BenchmarkMatrix;
 import org.deidentifier.arx.BenchmarkSetup.BenchmarkPrivacyModel;
 import org.deidentifier.arx.BenchmarkSetup.BenchmarkQualityMeasure;
-import org.deidentifier.arx.benchmark.BenchmarkExperiment1;
-
-import de.linearbits.objectselector.Selector;
-import de.linearbits.subframe.analyzer.Analyzer;
-import de.linearbits.subframe.io.CSVFile;
-import de.linearbits.subframe.io.CSVLine;
+import org.deidentifier.arx.BenchmarkStore;
 
 /**
  * Analysis of the results of the 1st set of experiments
@@ -49,35 +44,39 @@ public class BenchmarkAnalysis1 {
     public static void main(String[] args) throws IOException, ParseException {
         
         // Prepare
-        CSVFile file = new CSVFile(new File("results/experiment1.csv"));
+        BenchmarkStore store = BenchmarkStore.open(new File("results/experiment1.csv"));
+        BenchmarkAggregation results = new BenchmarkAggregation(store,
+                                                                new String[] { "Quality measure", "Suppression limit", "Privacy model" },
+                                                                "Lightning", "DataFly", "IGreedy");
+        BenchmarkMatrix matrix = BenchmarkMatrix.load("experiment1", args);
 
         // For each plot
-        for (BenchmarkQualityMeasure measure : BenchmarkExperiment1.getUtilityMeasures()) {
-            for (double suppression : BenchmarkExperiment1.getSuppressionLimits()) {
+        for (BenchmarkQualityMeasure measure : matrix.getQualityMeasures()) {
+            for (double suppression : matrix.getSuppressionLimits()) {
                 System.out.println("----------------------");
                 System.out.println("Quality measure: " + measure);
                 System.out.println("Suppression limit: " + String.valueOf(suppression));
                 System.out.println("----------------------");
                 System.out.println("");
                 System.out.format("%-30s%-30s%-30s%-30s\n", new Object[]{"Privacy model", "Lightning", "DataFly", "IGreedy"});
-                for (BenchmarkPrivacyModel criterion : BenchmarkExperiment1.getCriteria()) {
-                    analyzeMean(file, measure, suppression, criterion); 
+                for (BenchmarkPrivacyModel criterion : matrix.getPrivacyModels()) {
+                    analyzeMean(results, measure, suppression, criterion); 
                 }
                 System.out.println("");
             }
         }
         
         // For each plot
-        for (BenchmarkQualityMeasure measure : BenchmarkExperiment1.getUtilityMeasures()) {
-            for (double suppression : BenchmarkExperiment1.getSuppressionLimits()) {
+        for (BenchmarkQualityMeasure measure : matrix.getQualityMeasures()) {
+            for (double suppression : matrix.getSuppressionLimits()) {
                 System.out.println("----------------------");
                 System.out.println("Quality measure: " + measure);
                 System.out.println("Suppression limit: " + String.valueOf(suppression));
                 System.out.println("----------------------");
                 System.out.println("");
                 System.out.format("%-30s%-30s%-30s%-30s%-30s\n", new Object[]{"Dataset", "Privacy model", "Lightning", "DataFly", "IGreedy"});
-                for (BenchmarkPrivacyModel criterion : BenchmarkExperiment1.getCriteria()) {
-                    analyze(file, measure, suppression, criterion); 
+                for (BenchmarkPrivacyModel criterion : matrix.getPrivacyModels()) {
+                    analyze(results, measure, suppression, criterion); 
                 }
                 System.out.println("");
             }
@@ -86,40 +85,28 @@ public class BenchmarkAnalysis1 {
 
     /**
      * Analyzes the results from one experiment
-     * @param file
+     * @param results
      * @param measure
      * @param suppression
      * @param criterion
      * @throws ParseException 
      */
-    private static void analyzeMean(CSVFile file,
+    private static void analyzeMean(BenchmarkAggregation results,
                                 BenchmarkQualityMeasure measure,
                                 double suppression,
                                 BenchmarkPrivacyModel criterion) throws ParseException {
 
-        // Select
-        Selector<String[]> selector = file.getSelectorBuilder()
-                                          .field("Suppression limit").equals(String.valueOf(suppression)).and()
-                                          .field("Quality measure").equals(measure.toString()).and()
-                                          .field("Privacy model").equals(criterion.toString())
-                                          .build();
-
-        // Iterate
-        double lightning = 1d;
-        double datafly = 1d;
-        double igreedy = 1d;
-        for (Iterator<CSVLine> iter = file.iterator(); iter.hasNext(); ) {
-            CSVLine line = iter.next();
-            if (selector.isSelected(line.getData())) {
-                lightning *= Double.valueOf(line.get("Lightning", Analyzer.VALUE)) + 1d;
-                datafly *= Double.valueOf(line.get("DataFly", Analyzer.VALUE)) + 1d;
-                igreedy *= Double.valueOf(line.get("IGreedy", Analyzer.VALUE)) + 1d; 
-            }
+        // No results
+        String[] group = new String[] { measure.toString(), String.valueOf(suppression), criterion.toString() };
+        if (results.getCount(group) == 0) {
+            System.out.format("   - %-30s%-30s%-30s%-30s\n", new Object[] { criterion.toString(), "--", "--", "--" });
+            return;
         }
-        
-        lightning = Double.valueOf(format((Math.pow(lightning, 1d/5d) - 1d) * 100d));
-        datafly = Double.valueOf(format((Math.pow(datafly, 1d/5d) - 1d) * 100d));
-        igreedy = Double.valueOf(format((Math.pow(igreedy, 1d/5d) - 1d) * 100d));
+
+        // Aggregate
+        double lightning = Double.valueOf(format(results.getGeometricMean("Lightning", group) * 100d));
+        double datafly = Double.valueOf(format(results.getGeometricMean("DataFly", group) * 100d));
+        double igreedy = Double.valueOf(format(results.getGeometricMean("IGreedy", group) * 100d));
         
         Object[] output = new String[]{criterion.toString(),
                                        format(lightning, lightning, datafly, igreedy),
@@ -131,38 +118,32 @@ public class BenchmarkAnalysis1 {
 
     /**
      * Analyzes the results from one experiment
-     * @param file
+     * @param results
      * @param measure
      * @param suppression
      * @param criterion
      * @throws ParseException 
      */
-    private static void analyze(CSVFile file,
+    private static void analyze(BenchmarkAggregation results,
                                 BenchmarkQualityMeasure measure,
                                 double suppression,
                                 BenchmarkPrivacyModel criterion) throws ParseException {
 
         // Select
-        Selector<String[]> selector = file.getSelectorBuilder()
-                                          .field("Suppression limit").equals(String.valueOf(suppression)).and()
-                                          .field("Quality measure").equals(measure.toString()).and()
-                                          .field("Privacy model").equals(criterion.toString())
-                                          .build();
+        BenchmarkStore file = results.getStore();
+        int[] rows = results.getRows(measure.toString(), String.valueOf(suppression), criterion.toString());
 
         // Iterate
-        for (Iterator<CSVLine> iter = file.iterator(); iter.hasNext(); ) {
-            CSVLine line = iter.next();
-            if (selector.isSelected(line.getData())) {
-                double own = Double.valueOf(format(Double.valueOf(line.get("Lightning", Analyzer.VALUE)) * 100d));
-                double datafly = Double.valueOf(format(Double.valueOf(line.get("DataFly", Analyzer.VALUE)) * 100d));
-                double igreedy = Double.valueOf(format(Double.valueOf(line.get("IGreedy", Analyzer.VALUE)) * 100d));
-                Object[] output = new String[]{criterion.toString(),
-                                               line.get("", "Dataset"),
-                                               format(own, own, datafly, igreedy),
-                                               format(datafly, own, datafly, igreedy),
-                                               format(igreedy, own, datafly, igreedy)};
-                System.out.format("   - %-30s%-30s%-30s%-30s%-30s\n", output);
-            }
+        for (int row : rows) {
+            double own = Double.valueOf(format(file.getDouble("Lightning", row) * 100d));
+            double datafly = Double.valueOf(format(file.getDouble("DataFly", row) * 100d));
+            double igreedy = Double.valueOf(format(file.getDouble("IGreedy", row) * 100d));
+            Object[] output = new String[]{criterion.toString(),
+                                           file.getString("Dataset", row),
+                                           format(own, own, datafly, igreedy),
+                                           format(datafly, own, datafly, igreedy),
+                                           format(igreedy, own, datafly, igreedy)};
+            System.out.format("   - %-30s%-30s%-30s%-30s%-30s\n", output);
         }
     }
 
@@ -23,16 +23,11 @@ import java.io.File;
 import java.io.IOException;
 import java.text.DecimalFormat;
 import java.text.ParseException;
-import java.util.Iterator;
 
+import org.deidentifier.arx.BenchmarkMatrix;
 import org.deidentifier.arx.BenchmarkSetup.BenchmarkPrivacyModel;
 import org.deidentifier.arx.BenchmarkSetup.BenchmarkQualityMeasure;
-import org.deidentifier.arx.benchmark.BenchmarkExperiment2;
-
-import de.linearbits.objectselector.Selector;
-import de.linearbits.subframe.analyzer.Analyzer;
-import de.linearbits.subframe.io.CSVFile;
-import de.linearbits.subframe.io.CSVLine;
+import org.deidentifier.arx.BenchmarkStore;
 
 /**
  * Analysis of the results of the 2nd set of experiments
@@ -49,12 +44,15 @@ public class BenchmarkAnalysis2 {
     public static void main(String[] args) throws IOException, ParseException {
         
         // Prepare
-        CSVFile file = new CSVFile(new File("results/experiment2.csv"));
+        BenchmarkStore store = BenchmarkStore.open(new File("results/experiment2.csv"));
+        BenchmarkAggregation results = new BenchmarkAggregation(store,
+                                                                new String[] { "Quality measure", "Suppression limit", "Privacy model" });
+        BenchmarkMatrix matrix = BenchmarkMatrix.load("experiment2", args);
 
         // For each plot
-        for (BenchmarkQualityMeasure measure : BenchmarkExperiment2.getQualityMeasures()) {
-            for (double suppression : BenchmarkExperiment2.getSuppressionLimits()) {
-                for (BenchmarkPrivacyModel model : BenchmarkExperiment2.getPrivacyModels()) {
+        for (BenchmarkQualityMeasure measure : matrix.getQualityMeasures()) {
+            for (double suppression : matrix.getSuppressionLimits()) {
+                for (BenchmarkPrivacyModel model : matrix.getPrivacyModels()) {
                     System.out.println("----------------------");
                     System.out.println("Privacy model: " + model);
                     System.out.println("Quality measure: " + measure);
@@ -62,7 +60,7 @@ public class BenchmarkAnalysis2 {
                     System.out.println("----------------------");
                     System.out.println("");
                     System.out.format("%-30s%-30s%-30s%-30s%-30s\n", new Object[]{"Dataset", "Flash", "Lightning", "Discovery", "Quality"});
-                    analyze(file, measure, suppression, model);
+                    analyze(results, measure, suppression, model);
                     System.out.println("");
                 }
             }
@@ -72,74 +70,69 @@ public class BenchmarkAnalysis2 {
 
     /**
      * Analyzes the results from one experiment
-     * @param file
+     * @param results
      * @param measure
      * @param suppression
      * @param criterion
      * @throws ParseException 
      */
-    private static void analyze(CSVFile file,
+    private static void analyze(BenchmarkAggregation results,
                                 BenchmarkQualityMeasure measure,
                                 double suppression,
                                 BenchmarkPrivacyModel criterion) throws ParseException {
 
         // Select
-        Selector<String[]> selector = file.getSelectorBuilder()
-                                          .field("Suppression limit").equals(String.valueOf(suppression)).and()
-                                          .field("Quality measure").equals(measure.toString()).and()
-                                          .field("Privacy model").equals(criterion.toString())
-                                          .build();
+        BenchmarkStore file = results.getStore();
+        int[] rows = results.getRows(measure.toString(), String.valueOf(suppression), criterion.toString());
 
         // Iterate
-        for (Iterator<CSVLine> iter = file.iterator(); iter.hasNext(); ) {
-            CSVLine line = iter.next();
-            if (selector.isSelected(line.getData())) {
-                
-                // Read values
-                double _flash = getValue(line, "Flash", 1d / 1000d);
-                double _lightning = getValue(line, "Lightning", 1d / 1000d);
-                double _utility = getValue(line, "Quality", 100d);
-                
-                // Convert to strings
-                String discovery = "--";
-                String utility = "--"; 
-                String flash = null;
-                String lightning = null;
-                if (_utility != -100d) {
-                    utility = format(100d - _utility);
-                    discovery = format(getValue(line, "Discovery", 1d / 1000d));
-                }
-                flash = format(_flash);
-                lightning = format(_lightning);
+        for (int row : rows) {
+            
+            // Read values
+            double _flash = getValue(file, row, "Flash", 1d / 1000d);
+            double _lightning = getValue(file, row, "Lightning", 1d / 1000d);
+            double _utility = getValue(file, row, "Quality", 100d);
+            
+            // Convert to strings
+            String discovery = "--";
+            String utility = "--"; 
+            String flash = null;
+            String lightning = null;
+            if (_utility != -100d) {
+                utility = format(100d - _utility);
+                discovery = format(getValue(file, row, "Discovery", 1d / 1000d));
+            }
+            flash = format(_flash);
+            lightning = format(_lightning);
 
-                // Discovery and total time of lightning are potentially measured in different benchmark runs.
-                // Due to fluctuations in the JVM execution times, discovery can thus be
-                // a bit larger than total time, when they are actually identical. 
-                // We handle this special case here.
-                if (!discovery.equals("--") && Double.valueOf(discovery) > Double.valueOf(_lightning)) {
-                    discovery = format(_lightning);
-                }
-                
-                // Print
-                Object[] output = new String[]{line.get("", "Dataset"),
-                                               flash,
-                                               lightning,
-                                               discovery,
-                                               utility};
-                System.out.format("%-30s%-30s%-30s%-30s%-30s\n", output);
+            // Discovery and total time of lightning are potentially measured in different benchmark runs.
+            // Due to fluctuations in the JVM execution times, discovery can thus be
+            // a bit larger than total time, when they are actually identical. 
+            // We handle this special case here.
+            if (!discovery.equals("--") && Double.valueOf(discovery) > Double.valueOf(_lightning)) {
+                discovery = format(_lightning);
             }
+            
+            // Print
+            Object[] output = new String[]{file.getString("Dataset", row),
+                                           flash,
+                                           lightning,
+                                           discovery,
+                                           utility};
+            System.out.format("%-30s%-30s%-30s%-30s%-30s\n", output);
         }
     }
     
     /**
      * Returns a field value multiplied with the given factor. Performs some rounding
-     * @param line
+     * @param file
+     * @param row
      * @param field
      * @param factor
      * @return
      */
-    private static double getValue(CSVLine line, String field, double factor) {
-        return Double.valueOf(format(Double.valueOf(line.get(field, Analyzer.VALUE)) * factor));
+    private static double getValue(BenchmarkStore file, int row, String field, double factor) {
+        return Double.valueOf(format(file.getDouble(field, row) * factor));
     }
 
     /**
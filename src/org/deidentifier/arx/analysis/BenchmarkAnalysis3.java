@@ -23,18 +23,21 @@ import java.io.File;
 import java.io.IOException;
 import java.text.ParseException;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.TreeMap;
 
+import org.deidentifier.arx.BenchmarkMatrix;
 import org.deidentifier.arx.BenchmarkSetup.BenchmarkPrivacyModel;
 import org.deidentifier.arx.BenchmarkSetup.BenchmarkQualityMeasure;
+import org.deidentifier.arx.BenchmarkStore;
 import org.deidentifier.arx.benchmark.BenchmarkExperiment3;
 
+import cern.colt.GenericSorting;
+import cern.colt.Swapper;
+import cern.colt.function.IntComparator;
 import de.linearbits.objectselector.Selector;
 import de.linearbits.subframe.analyzer.Analyzer;
 import de.linearbits.subframe.graph.Field;
@@ -55,6 +58,70 @@ import de.linearbits.subframe.render.PlotGroup;
  * @author Fabian Prasser
  */
 public class BenchmarkAnalysis3 {
+
+    /**
+     * The points of one cluster, stored in primitive arrays
+     * @author Fabian Prasser
+     */
+    private static class Cluster {
+
+        /** X-values */
+        private double[]  x      = new double[16];
+        /** Y-values */
+        private double[]  y      = new double[16];
+        /** Points */
+        private Point3D[] points = new Point3D[16];
+        /** Number of points */
+        private int       size   = 0;
+
+        /**
+         * Adds a point
+         * @param point
+         */
+        private void add(Point3D point) {
+            if (size == x.length) {
+                x = Arrays.copyOf(x, size * 2);
+                y = Arrays.copyOf(y, size * 2);
+                points = Arrays.copyOf(points, size * 2);
+            }
+            x[size] = Double.valueOf(point.x);
+            y[size] = Double.valueOf(point.z);
+            points[size] = point;
+            size++;
+        }
+
+        /**
+         * Sorts the points by x and y. Two events may be reported for the same timestamp, if they
+         * occur within the resolution of the system's timer. In this case, we simply keep the
+         * smaller value.
+         */
+        private void sort() {
+            GenericSorting.mergeSort(0, size, new IntComparator() {
+                @Override
+                public int compare(int arg0, int arg1) {
+                    int cmpX = Double.compare(x[arg0], x[arg1]);
+                    return cmpX != 0 ? cmpX : Double.compare(y[arg0], y[arg1]);
+                }
+            }, new Swapper() {
+                @Override
+                public void swap(int arg0, int arg1) {
+                    double tmp = x[arg0]; x[arg0] = x[arg1]; x[arg1] = tmp;
+                    tmp = y[arg0]; y[arg0] = y[arg1]; y[arg1] = tmp;
+                    Point3D point = points[arg0]; points[arg0] = points[arg1]; points[arg1] = point;
+                }
+            });
+            int distinct = 0;
+            for (int i = 0; i < size; i++) {
+                if (distinct == 0 || x[i] != x[distinct - 1]) {
+                    x[distinct] = x[i];
+                    y[distinct] = y[i];
+                    points[distinct] = points[i];
+                    distinct++;
+                }
+            }
+            size = distinct;
+        }
+    }
     
     /**
      * Main
@@ -65,22 +132,23 @@ public class BenchmarkAnalysis3 {
     public static void main(String[] args) throws IOException, ParseException {
         
         // Prepare
-        CSVFile file = new CSVFile(new File("results/experiment3.csv"));
+        BenchmarkStore file = BenchmarkStore.open(new File("results/" + BenchmarkExperiment3.NAME + ".csv"));
+        BenchmarkMatrix matrix = BenchmarkMatrix.load("experiment3", args);
         
         // Create on file with multiple plots
         List<PlotGroup> groups = new ArrayList<PlotGroup>();
 
         // For each plot
-        for (BenchmarkPrivacyModel criterion : BenchmarkExperiment3.getPrivacyModels()) {
-            for (BenchmarkQualityMeasure measure : BenchmarkExperiment3.getQualityMeasures()) {
-                for (double suppression : BenchmarkExperiment3.getSuppressionLimits()) {
+        for (BenchmarkPrivacyModel criterion : matrix.getPrivacyModels()) {
+            for (BenchmarkQualityMeasure measure : matrix.getQualityMeasures()) {
+                for (double suppression : matrix.getSuppressionLimits()) {
                     groups.add(plot(file, criterion, measure, suppression));
                 }
             }
         }
 
         // Plot
-        LaTeX.plot(groups, "results/experiment3", false);
+        LaTeX.plot(groups, "results/" + BenchmarkExperiment3.NAME, false);
     }
 
     /**
@@ -92,7 +160,7 @@ public class BenchmarkAnalysis3 {
      * @return
      * @throws ParseException 
      */
-    private static PlotGroup plot(CSVFile file,
+    private static PlotGroup plot(BenchmarkStore file,
                                   BenchmarkPrivacyModel criterion,
                                   BenchmarkQualityMeasure measure,
                                   double suppression) throws ParseException {
@@ -112,14 +180,18 @@ public class BenchmarkAnalysis3 {
         params.colorize = true;
 
         // Select
-        Selector<String[]> selector = file.getSelectorBuilder()
-                                          .field("Suppression limit").equals(String.valueOf(suppression)).and()
-                                          .field("Quality measure").equals(measure.toString()).and()
-                                          .field("Privacy model").equals(criterion.toString())
-                                          .build();
+        int[] rows = file.select("Suppression limit", String.valueOf(suppression),
+                                 "Quality measure", measure.toString(),
+                                 "Privacy model", criterion.toString());
+        CSVFile selected = file.toCSVFile(rows, "Time", "Quality");
+        Selector<String[]> selector = selected.getSelectorBuilder()
+                                              .field("Suppression limit").equals(String.valueOf(suppression)).and()
+                                              .field("Quality measure").equals(measure.toString()).and()
+                                              .field("Privacy model").equals(criterion.toString())
+                                              .build();
 
         // Create series
-        Series3D series = new Series3D(file,
+        Series3D series = new Series3D(selected,
                                        selector,
                                        new Field("Time", Analyzer.VALUE),
                                        new Field("", "Dataset"),
@@ -155,108 +227,95 @@ public class BenchmarkAnalysis3 {
     }
 
     /**
-     * We need to make sure that for every x-value there exists a y-value for each cluster
+     * Sorts the first values of the given array and removes duplicates. Returns the number of
+     * distinct values.
+     * @param values
+     * @param size
+     * @return
+     */
+    private static int distinct(double[] values, int size) {
+        Arrays.sort(values, 0, size);
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (distinct == 0 || values[i] != values[distinct - 1]) {
+                values[distinct++] = values[i];
+            }
+        }
+        return distinct;
+    }
+
+    /**
+     * We need to make sure that for every x-value there exists a y-value for each cluster.
+     * Interprets each cluster as a step function and evaluates it at the union of all x-values
+     * by merging sorted arrays.
      * @param series
      */
     private static void makeClusterable(Series3D series) {
 
-        // Sort
-        Collections.sort(series.getData(), new Comparator<Point3D>() {
-            @Override
-            public int compare(Point3D o1, Point3D o2) {
-                int cluster = o1.y.compareTo(o2.y);
-                if (cluster != 0) {
-                    return cluster;
-                }
-                int cmpX = Double.valueOf(o1.x).compareTo(Double.valueOf(o2.x));
-                int cmpZ = Double.valueOf(o1.z).compareTo(Double.valueOf(o2.z));
-                if (cmpX != 0) {
-                    return cmpX;
-                } else {
-                    return cmpZ;
-                }
-            }            
-        });
-        
-        // For very small datasets it may be the case that two events are
-        // Reported for the same timestamp to due ms resolution
-        // In this case, we simply remove the smaller value
-        Iterator<Point3D> iter = series.getData().iterator();
-        double previousX = -1d;
-        while (iter.hasNext()) {
-            Point3D next = iter.next();
-            double nextX = Double.valueOf(next.x);
-            if (nextX == previousX) {
-                iter.remove();
-            } else {
-                previousX = nextX;
-            }
-        }
-        
-        // Prepare
-        List<Double> xvalues = new ArrayList<Double>();
-        Map<String, Map<Double, Double>> data = new HashMap<String, Map<Double, Double>>();
+        // Group by cluster, ignoring cells in which no solution has been found
+        Map<String, Cluster> clusters = new TreeMap<String, Cluster>();
         for (Point3D point : series.getData()) {
-            if (!data.containsKey(point.y)) {
-                data.put(point.y, new HashMap<Double, Double>());
-            }
-            Double x = Double.valueOf(point.x);
-            Double y = Double.valueOf(point.z);
-            data.get(point.y).put(x, y);
-            if (!xvalues.contains(x)) {
-                xvalues.add(x);
+            if (Double.isNaN(Double.valueOf(point.z))) {
+                continue;
             }
-            // Articial steps, shifted by 1/10 ms
-            if (x > 0 && !xvalues.contains(x - 0.1d)) {
-                xvalues.add(x - 0.1d);
+            Cluster cluster = clusters.get(point.y);
+            if (cluster == null) {
+                cluster = new Cluster();
+                clusters.put(point.y, cluster);
             }
+            cluster.add(point);
         }
-        
-        // For each cluster entry
-        for (String cluster : data.keySet()) {
-            
-            // For each x-value
-            for (double x : xvalues) {
-                if (!data.get(cluster).containsKey(x)) {
-                    series.getData().add(new Point3D(String.valueOf(x), cluster, String.valueOf(getYValueFor(x, data.get(cluster)))));
-                }
+
+        // Collect x-values
+        int size = 0;
+        for (Cluster cluster : clusters.values()) {
+            cluster.sort();
+            size += cluster.size;
+        }
+        double[] events = new double[size];
+        size = 0;
+        for (Cluster cluster : clusters.values()) {
+            System.arraycopy(cluster.x, 0, events, size, cluster.size);
+            size += cluster.size;
+        }
+        int count = distinct(events, size);
+
+        // Artificial steps are shifted by half of the smallest gap between two x-values, so that
+        // they are placed after all previous events and after zero
+        double offset = count > 0 && events[0] > 0 ? events[0] / 2d : Double.MAX_VALUE;
+        for (int i = 1; i < count; i++) {
+            offset = Math.min(offset, (events[i] - events[i - 1]) / 2d);
+        }
+        double[] xvalues = new double[count * 2];
+        size = 0;
+        for (int i = 0; i < count; i++) {
+            double x = events[i];
+            xvalues[size++] = x;
+            if (x > 0) {
+                xvalues[size++] = x - offset;
             }
         }
-        
-        // Sort
-        Collections.sort(series.getData(), new Comparator<Point3D>() {
-            @Override
-            public int compare(Point3D o1, Point3D o2) {
-                int cluster = o1.y.compareTo(o2.y);
-                if (cluster != 0) {
-                    return cluster;
-                }
-                int cmpX = Double.valueOf(o1.x).compareTo(Double.valueOf(o2.x));
-                int cmpZ = Double.valueOf(o1.z).compareTo(Double.valueOf(o2.z));
-                if (cmpX != 0) {
-                    return cmpX;
+        int distinct = distinct(xvalues, size);
+
+        // Merge each cluster with the x-values
+        List<Point3D> result = new ArrayList<Point3D>(distinct * clusters.size());
+        for (Entry<String, Cluster> entry : clusters.entrySet()) {
+            Cluster cluster = entry.getValue();
+            double value = 0d;
+            int index = 0;
+            for (int i = 0; i < distinct; i++) {
+                double x = xvalues[i];
+                if (index < cluster.size && cluster.x[index] == x) {
+                    value = cluster.y[index];
+                    result.add(cluster.points[index++]);
                 } else {
-                    return cmpZ;
+                    result.add(new Point3D(String.valueOf(x), entry.getKey(), String.valueOf(value)));
                 }
-            }            
-        });
-    }
-
-    /**
-     * Returns a missing y value
-     * @param x
-     * @param data
-     * @return
-     */
-    private static Double getYValueFor(double x, Map<Double, Double> data) {
-        double max = - Double.MAX_VALUE;
-        double value = 0d;
-        for (Entry<Double, Double> entry : data.entrySet()) {
-            if (entry.getKey() <= x && entry.getKey() >= max) {
-                max = entry.getKey();
-                value = entry.getValue();
             }
         }
-        return value;
+
+        // Replace
+        series.getData().clear();
+        series.getData().addAll(result);
     }
 }
@@ -0,0 +1,418 @@
+/*
+ * Source code of the experiments from our 2016 paper 
+ * "Lightning: Utility-driven anonymization of high-dimensional data"
+ *      
+ * Copyright (C) 2015 Fabian Prasser, Raffael Bild, Johanna Eicher, Helmut Spengler, Florian Kohlmayer
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.analysis;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Analyzes the results of a running experiment. The results file is polled and only rows which
+ * have been added since the previous update are processed. For each group of rows, which is
+ * defined by all dimensions except the dataset, the number of rows as well as the arithmetic and
+ * geometric means of all numeric measures are maintained and printed. Moreover, each new row is
+ * appended to a data file of its group in the folder <code>results/[experiment]-live</code>,
+ * which can directly be plotted with Gnuplot.<br>
+ * <br>
+ * Usage: <code>BenchmarkAnalysisLive experimentN [interval in seconds]</code>
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkAnalysisLive {
+
+    /**
+     * Aggregates of one group
+     *
+     * @author Fabian Prasser
+     */
+    private static class Group {
+
+        /** Labels */
+        private final String[] labels;
+        /** Number of rows */
+        private int            count;
+        /** Number of numeric values per measure */
+        private final int[]    counts;
+        /** Sums per measure */
+        private final double[] sums;
+        /** Products of the values plus one per measure */
+        private final double[] products;
+        /** Data file */
+        private final File     file;
+
+        /**
+         * Creates a new instance
+         * @param labels
+         * @param measures
+         * @param file
+         */
+        private Group(String[] labels, int measures, File file) {
+            this.labels = labels;
+            this.counts = new int[measures];
+            this.sums = new double[measures];
+            this.products = new double[measures];
+            this.file = file;
+            for (int i = 0; i < measures; i++) {
+                this.products[i] = 1d;
+            }
+        }
+
+        /**
+         * Adds a row
+         * @param values
+         */
+        private void add(double[] values) {
+            count++;
+            for (int i = 0; i < values.length; i++) {
+                if (!Double.isNaN(values[i])) {
+                    counts[i]++;
+                    sums[i] += values[i];
+                    products[i] *= values[i] + 1d;
+                }
+            }
+        }
+
+        /**
+         * Returns the geometric mean of the values of the given measure plus one, minus one.
+         * Returns NaN if there are no values.
+         * @param measure
+         * @return
+         */
+        private double getGeometricMean(int measure) {
+            if (counts[measure] == 0) {
+                return Double.NaN;
+            }
+            return Math.pow(products[measure], 1d / counts[measure]) - 1d;
+        }
+
+        /**
+         * Returns the arithmetic mean of the values of the given measure
+         * @param measure
+         * @return
+         */
+        private double getMean(int measure) {
+            return sums[measure] / counts[measure];
+        }
+    }
+
+    /** Charset */
+    private static final Charset CHARSET = Charset.forName("UTF-8");
+
+    /**
+     * Main
+     * @param args
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            throw new IllegalArgumentException("Usage: BenchmarkAnalysisLive experimentN [interval in seconds]");
+        }
+        BenchmarkAnalysisLive analysis = new BenchmarkAnalysisLive(new File("results", args[0] + ".csv"),
+                                                                   new File("results", args[0] + "-live"));
+        long interval = args.length > 1 ? Long.valueOf(args[1]) * 1000L : 10000L;
+        while (true) {
+            if (analysis.update()) {
+                analysis.print();
+            }
+            Thread.sleep(interval);
+        }
+    }
+
+    /** The results file */
+    private final File               file;
+
+    /** The folder for data files */
+    private final File               folder;
+
+    /** Number of bytes processed */
+    private long                     offset;
+
+    /** The first two lines processed, which contain the header */
+    private byte[]                   head;
+
+    /** The last line processed */
+    private byte[]                   last;
+
+    /** The header */
+    private List<String[]>           header;
+
+    /** Number of dimensions */
+    private int                      dimensions;
+
+    /** The measures */
+    private String[]                 measures;
+
+    /** The groups */
+    private final Map<String, Group> groups = new TreeMap<String, Group>();
+
+    /**
+     * Creates a new instance
+     * @param file
+     * @param folder
+     */
+    public BenchmarkAnalysisLive(File file, File folder) {
+        this.file = file;
+        this.folder = folder;
+    }
+
+    /**
+     * Prints the aggregates of all groups
+     */
+    public void print() {
+        if (measures == null) {
+            return;
+        }
+        System.out.println("----------------------");
+        System.out.println("Results: " + file + " (" + getRows() + " rows)");
+        System.out.println("----------------------");
+        System.out.println("");
+        StringBuilder format = new StringBuilder();
+        List<Object> output = new ArrayList<Object>();
+        for (int i = 0; i < dimensions - 1; i++) {
+            format.append("%-30s");
+            output.add(header.get(1)[i]);
+        }
+        format.append("%-10s");
+        output.add("Rows");
+        for (String measure : measures) {
+            format.append("%-20s%-20s");
+            output.add(measure + " (mean)");
+            output.add(measure + " (geo)");
+        }
+        format.append("\n");
+        System.out.format(format.toString(), output.toArray());
+        for (Group group : groups.values()) {
+            output.clear();
+            for (String label : group.labels) {
+                output.add(label);
+            }
+            output.add(String.valueOf(group.count));
+            for (int i = 0; i < measures.length; i++) {
+                output.add(group.counts[i] == 0 ? "--" : format(group.getMean(i)));
+                output.add(group.counts[i] == 0 ? "--" : format(group.getGeometricMean(i)));
+            }
+            System.out.format(format.toString(), output.toArray());
+        }
+        System.out.println("");
+    }
+
+    /**
+     * Processes all rows which have been added since the previous update. Returns whether there
+     * were any.
+     * @return
+     * @throws IOException
+     */
+    public boolean update() throws IOException {
+
+        // Start over, if the file has been replaced by one which does not continue the rows
+        // processed. As the file is replaced atomically on each write, its key and modification
+        // time cannot be used, which is why the header and the last line processed are compared.
+        if (!file.exists()) {
+            return false;
+        }
+
+        // Read complete lines
+        List<String[]> lines = new ArrayList<String[]>();
+        RandomAccessFile input = new RandomAccessFile(file, "r");
+        try {
+            if (input.length() < offset || !matches(input, 0, head) || !matches(input, offset - (last == null ? 0 : last.length), last)) {
+                reset();
+            }
+            byte[] data = new byte[(int) (input.length() - offset)];
+            input.seek(offset);
+            input.readFully(data);
+            int start = 0;
+            for (int i = 0; i < data.length; i++) {
+                if (data[i] == '\n') {
+                    String line = new String(data, start, i - start, CHARSET);
+                    lines.add(line.split(";", -1));
+                    if (header == null && lines.size() == 2) {
+                        head = Arrays.copyOfRange(data, 0, i + 1);
+                    }
+                    last = Arrays.copyOfRange(data, start, i + 1);
+                    start = i + 1;
+                }
+            }
+            offset += start;
+        } finally {
+            input.close();
+        }
+
+        // Process header
+        if (header == null) {
+            if (lines.size() < 2) {
+                reset();
+                return false;
+            }
+            header = new ArrayList<String[]>(lines.subList(0, 2));
+            lines = lines.subList(2, lines.size());
+            String[] first = header.get(0);
+            dimensions = 0;
+            while (dimensions < first.length && first[dimensions].isEmpty()) {
+                dimensions++;
+            }
+            measures = new String[first.length - dimensions];
+            System.arraycopy(first, dimensions, measures, 0, measures.length);
+        }
+
+        // Process rows
+        Map<Group, StringBuilder> data = new HashMap<Group, StringBuilder>();
+        for (String[] line : lines) {
+            if (line.length != header.get(0).length) {
+                continue;
+            }
+            Group group = getGroup(line);
+            double[] values = new double[measures.length];
+            StringBuilder builder = data.get(group);
+            if (builder == null) {
+                builder = new StringBuilder();
+                data.put(group, builder);
+            }
+            builder.append(line[dimensions - 1].replace(' ', '_'));
+            for (int i = 0; i < values.length; i++) {
+                values[i] = getValue(line[dimensions + i]);
+                builder.append(' ').append(values[i]);
+            }
+            builder.append('\n');
+            group.add(values);
+        }
+
+        // Append to data files
+        for (Map.Entry<Group, StringBuilder> entry : data.entrySet()) {
+            Writer writer = new OutputStreamWriter(new FileOutputStream(entry.getKey().file, true), CHARSET);
+            try {
+                writer.write(entry.getValue().toString());
+            } finally {
+                writer.close();
+            }
+        }
+        return !lines.isEmpty();
+    }
+
+    /**
+     * Formats the given value
+     * @param value
+     * @return
+     */
+    private String format(double value) {
+        return String.format("%.3f", value).replace(',', '.');
+    }
+
+    /**
+     * Returns the group of the given row
+     * @param line
+     * @return
+     * @throws IOException
+     */
+    private Group getGroup(String[] line) throws IOException {
+        String[] labels = new String[dimensions - 1];
+        System.arraycopy(line, 0, labels, 0, labels.length);
+        StringBuilder key = new StringBuilder();
+        for (String label : labels) {
+            if (key.length() > 0) {
+                key.append('-');
+            }
+            key.append(label.replaceAll("[^A-Za-z0-9.]+", "_"));
+        }
+        Group group = groups.get(key.toString());
+        if (group == null) {
+            if (!folder.exists() && !folder.mkdirs()) {
+                throw new IOException("Cannot create folder: " + folder);
+            }
+            File data = new File(folder, key.toString() + ".dat");
+            if (data.exists() && !data.delete()) {
+                throw new IOException("Cannot delete file: " + data);
+            }
+            group = new Group(labels, measures.length, data);
+            groups.put(key.toString(), group);
+        }
+        return group;
+    }
+
+    /**
+     * Returns the number of rows processed
+     * @return
+     */
+    private int getRows() {
+        int rows = 0;
+        for (Group group : groups.values()) {
+            rows += group.count;
+        }
+        return rows;
+    }
+
+    /**
+     * Returns the given value, NaN if it is not numeric
+     * @param value
+     * @return
+     */
+    private double getValue(String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Returns whether the file contains the given bytes at the given position. Returns true if
+     * no bytes are given.
+     * @param input
+     * @param position
+     * @param expected
+     * @return
+     * @throws IOException
+     */
+    private boolean matches(RandomAccessFile input, long position, byte[] expected) throws IOException {
+        if (expected == null) {
+            return true;
+        }
+        if (position < 0 || position + expected.length > input.length()) {
+            return false;
+        }
+        byte[] actual = new byte[expected.length];
+        input.seek(position);
+        input.readFully(actual);
+        return Arrays.equals(actual, expected);
+    }
+
+    /**
+     * Resets the analysis
+     */
+    private void reset() {
+        offset = 0;
+        head = null;
+        last = null;
+        header = null;
+        measures = null;
+        groups.clear();
+    }
+}
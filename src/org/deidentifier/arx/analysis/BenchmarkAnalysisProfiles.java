@@ -0,0 +1,104 @@
+/*
+ * Source code of the experiments from our 2016 paper 
+ * "Lightning: Utility-driven anonymization of high-dimensional data"
+ *      
+ * Copyright (C) 2015 Fabian Prasser, Raffael Bild, Johanna Eicher, Helmut Spengler, Florian Kohlmayer
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.analysis;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.deidentifier.arx.algorithm.AlgorithmProfile.ProfileMeasure;
+
+import de.linearbits.subframe.analyzer.Analyzer;
+import de.linearbits.subframe.io.CSVFile;
+import de.linearbits.subframe.io.CSVLine;
+
+/**
+ * Renders the exploration profiles written by the experiments when executed with
+ * <code>-Dbenchmark.profile=true</code>. Expects the folder containing the profiles as an
+ * argument, e.g. <code>results/experiment3-profiles</code>.
+ * 
+ * @author Fabian Prasser
+ */
+public class BenchmarkAnalysisProfiles {
+
+    /**
+     * Main
+     * @param args
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+
+        // Prepare
+        File folder = new File(args.length > 0 ? args[0] : "results/experiment3-profiles");
+        File[] files = folder.listFiles(new FileFilter() {
+            @Override
+            public boolean accept(File file) {
+                return file.getName().endsWith(".csv");
+            }
+        });
+        if (files == null) {
+            throw new IOException("Cannot read folder: " + folder);
+        }
+        Arrays.sort(files);
+
+        // For each profile
+        for (File file : files) {
+            System.out.println("----------------------");
+            System.out.println("Cell: " + file.getName().substring(0, file.getName().length() - 4));
+            System.out.println("----------------------");
+            System.out.println("");
+            System.out.format("%-20s%-10s%-15s%-15s%-15s%-15s%-15s\n", new Object[] { "Algorithm", "Level", "Checked", "Anonymous", "Pruned", "Expanded", "Time [ms]" });
+            analyze(new CSVFile(file));
+            System.out.println("");
+        }
+    }
+
+    /**
+     * Prints one profile
+     * @param file
+     */
+    private static void analyze(CSVFile file) {
+        for (Iterator<CSVLine> iter = file.iterator(); iter.hasNext();) {
+            CSVLine line = iter.next();
+            long checked = getValue(line, ProfileMeasure.CHECKED);
+            long time = getValue(line, ProfileMeasure.TIME);
+            Object[] output = new Object[] { line.get("", "Algorithm"),
+                                             line.get("", "Level"),
+                                             checked,
+                                             getValue(line, ProfileMeasure.ANONYMOUS),
+                                             getValue(line, ProfileMeasure.PRUNED),
+                                             getValue(line, ProfileMeasure.EXPANDED),
+                                             String.valueOf(time / 1000000L) };
+            System.out.format("%-20s%-10s%-15d%-15d%-15d%-15d%-15s\n", output);
+        }
+    }
+
+    /**
+     * Returns the value of the given measure
+     * @param line
+     * @param measure
+     * @return
+     */
+    private static long getValue(CSVLine line, ProfileMeasure measure) {
+        return (long)Double.parseDouble(line.get(measure.toString(), Analyzer.VALUE));
+    }
+}
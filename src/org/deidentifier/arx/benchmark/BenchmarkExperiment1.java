@@ -19,15 +19,19 @@
 
 package org.deidentifier.arx.benchmark;
 
-import java.io.File;
 import java.io.IOException;
 
 import org.deidentifier.arx.BenchmarkEnvironment;
+import org.deidentifier.arx.BenchmarkEnvironment.BenchmarkResults;
+import org.deidentifier.arx.BenchmarkMatrix;
 import org.deidentifier.arx.BenchmarkMetadata;
 import org.deidentifier.arx.BenchmarkSetup.BenchmarkAlgorithm;
 import org.deidentifier.arx.BenchmarkSetup.BenchmarkDataset;
 import org.deidentifier.arx.BenchmarkSetup.BenchmarkPrivacyModel;
 import org.deidentifier.arx.BenchmarkSetup.BenchmarkQualityMeasure;
+import org.deidentifier.arx.algorithm.AlgorithmCounter;
+import org.deidentifier.arx.benchmark.BenchmarkScheduler.Cell;
+import org.deidentifier.arx.benchmark.BenchmarkScheduler.Isolation;
 
 import de.linearbits.subframe.Benchmark;
 import de.linearbits.subframe.analyzer.ValueBuffer;
@@ -41,14 +45,20 @@ import de.linearbits.subframe.analyzer.ValueBuffer;
 public class BenchmarkExperiment1 {
 
     /** The benchmark instance */
-    private static final Benchmark BENCHMARK = new Benchmark(new String[] { "Quality measure", "Suppression limit", "Privacy model", "Dataset"});
+    private static final Benchmark BENCHMARK          = new Benchmark(new String[] { "Quality measure", "Suppression limit", "Privacy model", "Dataset"});
 
     /** Label for result quality */
-    public static final int        LIGHTNING = BENCHMARK.addMeasure("Lightning");
+    public static final int        LIGHTNING          = BENCHMARK.addMeasure("Lightning");
     /** Label for result quality */
-    public static final int        DATAFLY   = BENCHMARK.addMeasure("DataFly");
+    public static final int        DATAFLY            = BENCHMARK.addMeasure("DataFly");
     /** Label for result quality */
-    public static final int        IGREEDY   = BENCHMARK.addMeasure("IGreedy");
+    public static final int        IGREEDY            = BENCHMARK.addMeasure("IGreedy");
+    /** Counters of Lightning */
+    public static final int[]      LIGHTNING_COUNTERS = BenchmarkMeasures.add(BENCHMARK, "Lightning", AlgorithmCounter.values());
+    /** Counters of DataFly */
+    public static final int[]      DATAFLY_COUNTERS   = BenchmarkMeasures.add(BENCHMARK, "DataFly", AlgorithmCounter.values());
+    /** Counters of IGreedy */
+    public static final int[]      IGREEDY_COUNTERS   = BenchmarkMeasures.add(BENCHMARK, "IGreedy", AlgorithmCounter.values());
 
     /**
      * Main entry point
@@ -59,108 +69,122 @@ public class BenchmarkExperiment1 {
     public static void main(String[] args) throws IOException {
         
         // Init
-        BENCHMARK.addAnalyzer(LIGHTNING, new ValueBuffer());
-        BENCHMARK.addAnalyzer(DATAFLY, new ValueBuffer());
-        BENCHMARK.addAnalyzer(IGREEDY, new ValueBuffer());
+        int[] measures = BenchmarkMeasures.concat(new int[] { LIGHTNING, DATAFLY, IGREEDY }, LIGHTNING_COUNTERS, DATAFLY_COUNTERS, IGREEDY_COUNTERS);
+        for (int measure : measures) {
+            BENCHMARK.addAnalyzer(measure, new ValueBuffer());
+        }
+
+        // Matrix, shard and results of previous runs
+        BenchmarkMatrix matrix = BenchmarkMatrix.load("experiment1", args);
+        BenchmarkShard shard = BenchmarkShard.parse(args);
+        final BenchmarkResultsFile results = new BenchmarkResultsFile(BENCHMARK, shard.getResultsFile("experiment1"), measures);
 
         // For each relevant combination
-        for (BenchmarkQualityMeasure measure : getUtilityMeasures()) {
-            for (double suppressionLimit : getSuppressionLimits()) {
-                for (BenchmarkPrivacyModel criterion : getCriteria()) {
-                    for (BenchmarkDataset dataset : getDatasets()) {
-
-                        // Run
-                        BENCHMARK.addRun(measure.toString(), String.valueOf(suppressionLimit), criterion.toString(), dataset.toString());
-                        
-                        // Measurements
-                        performExperiment(BenchmarkAlgorithm.LIGHTNIG_MINIMAL, LIGHTNING, dataset, measure, criterion, suppressionLimit);
-                        performExperiment(BenchmarkAlgorithm.DATAFLY, DATAFLY, dataset, measure, criterion, suppressionLimit);
-                        performExperiment(BenchmarkAlgorithm.IGREEDY, IGREEDY, dataset, measure, criterion, suppressionLimit);
-                        
-                        // Write after each experiment
-                        BENCHMARK.getResults().write(new File("results/experiment1.csv"));
+        BenchmarkScheduler scheduler = new BenchmarkScheduler();
+        int cell = 0;
+        for (final BenchmarkQualityMeasure measure : matrix.getQualityMeasures()) {
+            for (final double suppressionLimit : matrix.getSuppressionLimits()) {
+                for (final BenchmarkPrivacyModel criterion : matrix.getPrivacyModels()) {
+                    for (final BenchmarkDataset dataset : matrix.getDatasets()) {
+
+                        // Skip cells of other shards and completed cells
+                        if (!shard.contains(cell++) || results.isCompleted(measure.toString(), String.valueOf(suppressionLimit), criterion.toString(), dataset.toString())) {
+                            continue;
+                        }
+
+                        // Quality only, may be executed concurrently
+                        scheduler.submit(Isolation.SHARED, new Cell<BenchmarkResults[]>() {
+
+                            @Override
+                            public BenchmarkResults[] perform() throws IOException {
+                                
+                                // Measurements
+                                return new BenchmarkResults[] {
+                                        performExperiment(BenchmarkAlgorithm.LIGHTNIG_MINIMAL, dataset, measure, criterion, suppressionLimit),
+                                        performExperiment(BenchmarkAlgorithm.DATAFLY, dataset, measure, criterion, suppressionLimit),
+                                        performExperiment(BenchmarkAlgorithm.IGREEDY, dataset, measure, criterion, suppressionLimit)
+                                };
+                            }
+
+                            @Override
+                            public void record(BenchmarkResults[] result) throws IOException {
+
+                                // Run
+                                BENCHMARK.addRun(measure.toString(), String.valueOf(suppressionLimit), criterion.toString(), dataset.toString());
+                                BENCHMARK.addValue(LIGHTNING, getQuality(result[0], dataset, measure, criterion, suppressionLimit));
+                                BENCHMARK.addValue(DATAFLY, getQuality(result[1], dataset, measure, criterion, suppressionLimit));
+                                BENCHMARK.addValue(IGREEDY, getQuality(result[2], dataset, measure, criterion, suppressionLimit));
+
+                                // Counters
+                                for (int i = 0; i < LIGHTNING_COUNTERS.length; i++) {
+                                    BENCHMARK.addValue(LIGHTNING_COUNTERS[i], result[0].counters[i]);
+                                    BENCHMARK.addValue(DATAFLY_COUNTERS[i], result[1].counters[i]);
+                                    BENCHMARK.addValue(IGREEDY_COUNTERS[i], result[2].counters[i]);
+                                }
+
+                                // Profiles
+                                BenchmarkProfiles.write("experiment1", new String[] { "Lightning", "DataFly", "IGreedy" }, result,
+                                                        measure.toString(), String.valueOf(suppressionLimit), criterion.toString(), dataset.toString());
+                                
+                                // Write after each experiment
+                                results.write();
+                            }
+                        });
                     }
                 }
             }
         }
-    }
-    /**
-     * Returns all criteria for this experiment
-     * @return
-     */
-    public static BenchmarkPrivacyModel[] getCriteria() {
-        return new BenchmarkPrivacyModel[]{
-            BenchmarkPrivacyModel.K_ANONYMITY,
-            BenchmarkPrivacyModel.L_DIVERSITY,
-            BenchmarkPrivacyModel.T_CLOSENESS,
-            BenchmarkPrivacyModel.D_PRESENCE,
-            BenchmarkPrivacyModel.P_UNIQUENESS
-        };
-    }
-    /**
-     * Returns all datasets for this experiment
-     * @return
-     */
-    public static BenchmarkDataset[] getDatasets() {
-        return new BenchmarkDataset[] { 
-                BenchmarkDataset.ADULT,
-                BenchmarkDataset.CUP,
-                BenchmarkDataset.FARS,
-                BenchmarkDataset.ATUS,
-                BenchmarkDataset.IHIS
-        };
-    }
-    /**
-     * Returns all suppression limits for this experiment
-     * @return
-     */
-    public static double[] getSuppressionLimits() {
-        return new double[]{0d, 0.1d};
+        scheduler.run();
     }
 
     /**
-     * Returns all utility measures for this experiment
+     * Returns the normalized quality of the given result
+     * @param run
+     * @param dataset
+     * @param measure
+     * @param criterion
+     * @param suppressionLimit
      * @return
+     * @throws IOException
      */
-    public static BenchmarkQualityMeasure[] getUtilityMeasures() {
-        return new BenchmarkQualityMeasure[] { 
-                BenchmarkQualityMeasure.AECS,
-                BenchmarkQualityMeasure.LOSS,
-                BenchmarkQualityMeasure.DISCERNIBILITY,
-                BenchmarkQualityMeasure.ENTROPY,
-                BenchmarkQualityMeasure.PRECISION
-        };
+    private static double getQuality(BenchmarkResults run,
+                                     BenchmarkDataset dataset,
+                                     BenchmarkQualityMeasure measure,
+                                     BenchmarkPrivacyModel criterion,
+                                     double suppressionLimit) throws IOException {
+
+        // Measure utility
+        double value = run.informationLoss;
+        
+        // Normalize
+        double min = BenchmarkMetadata.getMinimalAndMaximalInformationLoss(dataset, measure, criterion, suppressionLimit)[0];
+        double max = BenchmarkMetadata.getMinimalAndMaximalInformationLoss(dataset, measure, criterion, suppressionLimit)[1];
+        double result = value - min;
+        result /= max-min;
+
+        // Return
+        return result;
     }
 
     /**
      * Performs one experiment
      * @param algorithm
-     * @param benchmarkMeasure
      * @param dataset
      * @param measure
      * @param criterion
      * @param suppressionLimit
+     * @return
      * @throws IOException
      */
-    private static void performExperiment(BenchmarkAlgorithm algorithm,
-                                         int benchmarkMeasure,
-                                         BenchmarkDataset dataset,
-                                         BenchmarkQualityMeasure measure,
-                                         BenchmarkPrivacyModel criterion,
-                                         double suppressionLimit) throws IOException {
+    private static BenchmarkResults performExperiment(BenchmarkAlgorithm algorithm,
+                                                      BenchmarkDataset dataset,
+                                                      BenchmarkQualityMeasure measure,
+                                                      BenchmarkPrivacyModel criterion,
+                                                      double suppressionLimit) throws IOException {
 
         System.out.println("Performing experiment 1 - " + algorithm + "/" + dataset + "/" + measure + "/" +criterion + "/" + suppressionLimit);
         
-        // Measure utility
-        double value = BenchmarkEnvironment.getBenchmarkResults(algorithm, dataset, measure, criterion, 0, suppressionLimit).informationLoss;
-        
-        // Normalize
-        double min = BenchmarkMetadata.getMinimalAndMaximalInformationLoss(dataset, measure, criterion, suppressionLimit)[0];
-        double max = BenchmarkMetadata.getMinimalAndMaximalInformationLoss(dataset, measure, criterion, suppressionLimit)[1];
-        double result = value - min;
-        result /= max-min;
-
-        // Add
-        BENCHMARK.addValue(benchmarkMeasure, result);
+        // Perform
+        return BenchmarkEnvironment.getBenchmarkResults(algorithm, dataset, measure, criterion, 0, suppressionLimit, true);
     }
 }
@@ -19,41 +19,132 @@
 
 package org.deidentifier.arx.benchmark;
 
-import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 
-import org.deidentifier.arx.BenchmarkEnvironment;
+import org.deidentifier.arx.BenchmarkEnvironment.BenchmarkPhase;
 import org.deidentifier.arx.BenchmarkEnvironment.BenchmarkResults;
+import org.deidentifier.arx.BenchmarkFork;
+import org.deidentifier.arx.BenchmarkMatrix;
 import org.deidentifier.arx.BenchmarkSetup.BenchmarkAlgorithm;
 import org.deidentifier.arx.BenchmarkSetup.BenchmarkPrivacyModel;
 import org.deidentifier.arx.BenchmarkSetup.BenchmarkDataset;
 import org.deidentifier.arx.BenchmarkSetup.BenchmarkQualityMeasure;
+import org.deidentifier.arx.BenchmarkTimes;
 import org.deidentifier.arx.BenchmarkMetadata;
+import org.deidentifier.arx.algorithm.AlgorithmCounter;
+import org.deidentifier.arx.benchmark.BenchmarkScheduler.Cell;
+import org.deidentifier.arx.benchmark.BenchmarkScheduler.Isolation;
 
 import de.linearbits.subframe.Benchmark;
 import de.linearbits.subframe.analyzer.ValueBuffer;
 
 /**
  * Performs the second experiment, which is a comparison of our approach with a globally-optimal algorithm.
+ * Set the system property <code>benchmark.fork</code> to perform all measurements in forked JVMs.
  *  
  * @author Fabian Prasser
  */
 public class BenchmarkExperiment2 {
 
-    /** Repetitions for the FLASH algorithm */
-    private static final int       REPETITIONS = 5;
+    /**
+     * The measurements of one cell
+     *
+     * @author Fabian Prasser
+     */
+    private static class Measurements {
+
+        /** Execution times of Flash */
+        private final BenchmarkTimes     flash;
+        /** Execution times of Lightning */
+        private final BenchmarkTimes     lightning;
+        /** Durations of the phases of Flash */
+        private final BenchmarkTimes[]   flashPhases;
+        /** Durations of the phases of Lightning */
+        private final BenchmarkTimes[]   lightningPhases;
+        /** Median counters of Flash */
+        private final double[]           flashCounters;
+        /** Median counters of Lightning */
+        private final double[]           lightningCounters;
+        /** Quality of Lightning when executed with Flash's time limit */
+        private final double             quality;
+        /** Discovery time of Lightning when executed with Flash's time limit */
+        private final double             discovery;
+        /** The first runs of Flash and Lightning, providing the profiles */
+        private final BenchmarkResults[] firstRuns;
+
+        /**
+         * Creates a new instance
+         * @param flash
+         * @param lightning
+         * @param flashPhases
+         * @param lightningPhases
+         * @param flashCounters
+         * @param lightningCounters
+         * @param quality
+         * @param discovery
+         * @param firstRuns
+         */
+        private Measurements(BenchmarkTimes flash,
+                             BenchmarkTimes lightning,
+                             BenchmarkTimes[] flashPhases,
+                             BenchmarkTimes[] lightningPhases,
+                             double[] flashCounters,
+                             double[] lightningCounters,
+                             double quality,
+                             double discovery,
+                             BenchmarkResults[] firstRuns) {
+            this.flash = flash;
+            this.lightning = lightning;
+            this.flashPhases = flashPhases;
+            this.lightningPhases = lightningPhases;
+            this.flashCounters = flashCounters;
+            this.lightningCounters = lightningCounters;
+            this.quality = quality;
+            this.discovery = discovery;
+            this.firstRuns = firstRuns;
+        }
+    }
 
     /** The benchmark instance */
-    private static final Benchmark BENCHMARK   = new Benchmark(new String[] { "Quality measure", "Privacy model", "Suppression limit", "Dataset" });
+    private static final Benchmark BENCHMARK          = new Benchmark(new String[] { "Quality measure", "Privacy model", "Suppression limit", "Dataset" });
 
     /** Time */
-    public static final int        FLASH       = BENCHMARK.addMeasure("Flash");
+    public static final int        FLASH              = BENCHMARK.addMeasure("Flash");
     /** Time */
-    public static final int        LIGHTNING   = BENCHMARK.addMeasure("Lightning");
+    public static final int        LIGHTNING          = BENCHMARK.addMeasure("Lightning");
     /** Time */
-    public static final int        DISCOVERY   = BENCHMARK.addMeasure("Discovery");
+    public static final int        DISCOVERY          = BENCHMARK.addMeasure("Discovery");
     /** Label for result quality */
-    public static final int        QUALITY     = BENCHMARK.addMeasure("Quality");
+    public static final int        QUALITY            = BENCHMARK.addMeasure("Quality");
+    /** Median time */
+    public static final int        FLASH_MEDIAN       = BENCHMARK.addMeasure("Flash median");
+    /** Lower bound of the confidence interval of the median time */
+    public static final int        FLASH_LOWER        = BENCHMARK.addMeasure("Flash lower");
+    /** Upper bound of the confidence interval of the median time */
+    public static final int        FLASH_UPPER        = BENCHMARK.addMeasure("Flash upper");
+    /** Number of runs */
+    public static final int        FLASH_RUNS         = BENCHMARK.addMeasure("Flash runs");
+    /** Times of all runs */
+    public static final int        FLASH_TIMES        = BENCHMARK.addMeasure("Flash times");
+    /** Median time */
+    public static final int        LIGHTNING_MEDIAN   = BENCHMARK.addMeasure("Lightning median");
+    /** Lower bound of the confidence interval of the median time */
+    public static final int        LIGHTNING_LOWER    = BENCHMARK.addMeasure("Lightning lower");
+    /** Upper bound of the confidence interval of the median time */
+    public static final int        LIGHTNING_UPPER    = BENCHMARK.addMeasure("Lightning upper");
+    /** Number of runs */
+    public static final int        LIGHTNING_RUNS     = BENCHMARK.addMeasure("Lightning runs");
+    /** Times of all runs */
+    public static final int        LIGHTNING_TIMES    = BENCHMARK.addMeasure("Lightning times");
+    /** Median durations of the phases of Flash */
+    public static final int[]      FLASH_PHASES       = BenchmarkMeasures.add(BENCHMARK, "Flash", BenchmarkPhase.values());
+    /** Median durations of the phases of Lightning */
+    public static final int[]      LIGHTNING_PHASES   = BenchmarkMeasures.add(BENCHMARK, "Lightning", BenchmarkPhase.values());
+    /** Median counters of Flash */
+    public static final int[]      FLASH_COUNTERS     = BenchmarkMeasures.add(BENCHMARK, "Flash", AlgorithmCounter.values());
+    /** Median counters of Lightning */
+    public static final int[]      LIGHTNING_COUNTERS = BenchmarkMeasures.add(BENCHMARK, "Lightning", AlgorithmCounter.values());
 
     /**
      * Main entry point
@@ -64,111 +155,172 @@ public class BenchmarkExperiment2 {
     public static void main(String[] args) throws IOException {
         
         // Init
-        BENCHMARK.addAnalyzer(FLASH, new ValueBuffer());
-        BENCHMARK.addAnalyzer(LIGHTNING, new ValueBuffer());
-        BENCHMARK.addAnalyzer(DISCOVERY, new ValueBuffer());
-        BENCHMARK.addAnalyzer(QUALITY, new ValueBuffer());
+        int[] measures = getMeasures();
+        for (int measure : measures) {
+            BENCHMARK.addAnalyzer(measure, new ValueBuffer());
+        }
+
+        // Matrix, shard and results of previous runs
+        BenchmarkMatrix matrix = BenchmarkMatrix.load("experiment2", args);
+        BenchmarkShard shard = BenchmarkShard.parse(args);
+        final BenchmarkResultsFile results = new BenchmarkResultsFile(BENCHMARK, shard.getResultsFile("experiment2"), measures);
 
         // For each relevant combination
-        for (BenchmarkQualityMeasure measure : getQualityMeasures()) {
-            for (BenchmarkPrivacyModel criterion : getPrivacyModels()) {
-                for (double suppressionLimit : getSuppressionLimits()) {
-                    for (BenchmarkDataset dataset : getDatasets()) {
-
-                        // Run
-                        BENCHMARK.addRun(measure.toString(), criterion.toString(), String.valueOf(suppressionLimit), dataset.toString());
-                        
-                        // Measurements
-                        performExperiment(dataset, measure, criterion, suppressionLimit);
-                        
-                        // Write after each experiment
-                        BENCHMARK.getResults().write(new File("results/experiment2.csv"));
+        BenchmarkScheduler scheduler = new BenchmarkScheduler();
+        int cell = 0;
+        for (final BenchmarkQualityMeasure measure : matrix.getQualityMeasures()) {
+            for (final BenchmarkPrivacyModel criterion : matrix.getPrivacyModels()) {
+                for (final double suppressionLimit : matrix.getSuppressionLimits()) {
+                    for (final BenchmarkDataset dataset : matrix.getDatasets()) {
+
+                        // Skip cells of other shards and completed cells
+                        if (!shard.contains(cell++) || results.isCompleted(measure.toString(), criterion.toString(), String.valueOf(suppressionLimit), dataset.toString())) {
+                            continue;
+                        }
+
+                        // Measures execution times, must not be disturbed
+                        scheduler.submit(Isolation.EXCLUSIVE, new Cell<Measurements>() {
+
+                            @Override
+                            public Measurements perform() throws IOException {
+                                
+                                // Measurements
+                                return performExperiment(dataset, measure, criterion, suppressionLimit);
+                            }
+
+                            @Override
+                            public void record(Measurements result) throws IOException {
+
+                                // Run
+                                BENCHMARK.addRun(measure.toString(), criterion.toString(), String.valueOf(suppressionLimit), dataset.toString());
+                                BENCHMARK.addValue(FLASH, result.flash.getMinimum());
+                                BENCHMARK.addValue(LIGHTNING, result.lightning.getMinimum());
+                                BENCHMARK.addValue(QUALITY, result.quality);
+                                BENCHMARK.addValue(DISCOVERY, result.discovery);
+
+                                // Distributions
+                                BENCHMARK.addValue(FLASH_MEDIAN, result.flash.getMedian());
+                                BENCHMARK.addValue(FLASH_LOWER, result.flash.getLowerBound());
+                                BENCHMARK.addValue(FLASH_UPPER, result.flash.getUpperBound());
+                                BENCHMARK.addValue(FLASH_RUNS, result.flash.size());
+                                BENCHMARK.addValue(FLASH_TIMES, result.flash.toString());
+                                BENCHMARK.addValue(LIGHTNING_MEDIAN, result.lightning.getMedian());
+                                BENCHMARK.addValue(LIGHTNING_LOWER, result.lightning.getLowerBound());
+                                BENCHMARK.addValue(LIGHTNING_UPPER, result.lightning.getUpperBound());
+                                BENCHMARK.addValue(LIGHTNING_RUNS, result.lightning.size());
+                                BENCHMARK.addValue(LIGHTNING_TIMES, result.lightning.toString());
+
+                                // Phases
+                                for (int i = 0; i < FLASH_PHASES.length; i++) {
+                                    BENCHMARK.addValue(FLASH_PHASES[i], result.flashPhases[i].getMedian());
+                                    BENCHMARK.addValue(LIGHTNING_PHASES[i], result.lightningPhases[i].getMedian());
+                                }
+
+                                // Counters
+                                for (int i = 0; i < FLASH_COUNTERS.length; i++) {
+                                    BENCHMARK.addValue(FLASH_COUNTERS[i], result.flashCounters[i]);
+                                    BENCHMARK.addValue(LIGHTNING_COUNTERS[i], result.lightningCounters[i]);
+                                }
+
+                                // Profiles
+                                BenchmarkProfiles.write("experiment2", new String[] { "Flash", "Lightning" }, result.firstRuns,
+                                                        measure.toString(), criterion.toString(), String.valueOf(suppressionLimit), dataset.toString());
+                                
+                                // Write after each experiment
+                                results.write();
+                            }
+                        });
                     }
                 }
             }
         }
+        scheduler.run();
     }
+
     /**
-     * Returns all privacy models for this experiment
-     * @return
-     */
-    public static BenchmarkPrivacyModel[] getPrivacyModels() {
-        return new BenchmarkPrivacyModel[]{
-            BenchmarkPrivacyModel.K_ANONYMITY,
-            BenchmarkPrivacyModel.P_UNIQUENESS
-        };
-    }
-    /**
-     * Returns all datasets for this experiment
+     * Returns the medians of all counters
+     * @param runs
      * @return
      */
-    public static BenchmarkDataset[] getDatasets() {
-        return new BenchmarkDataset[] { 
-                BenchmarkDataset.ADULT,
-                BenchmarkDataset.CUP,
-                BenchmarkDataset.FARS,
-                BenchmarkDataset.ATUS,
-                BenchmarkDataset.IHIS
-        };
+    private static double[] getCounters(BenchmarkResults[] runs) {
+        AlgorithmCounter[] counters = AlgorithmCounter.values();
+        double[] result = new double[counters.length];
+        long[] values = new long[runs.length];
+        for (int i = 0; i < counters.length; i++) {
+            for (int j = 0; j < runs.length; j++) {
+                values[j] = runs[j].getCount(counters[i]);
+            }
+            Arrays.sort(values);
+            int n = values.length;
+            result[i] = n == 0 ? Double.NaN : n % 2 == 1 ? values[n / 2] : (values[n / 2 - 1] + values[n / 2]) / 2d;
+        }
+        return result;
     }
+
     /**
-     * Returns all suppression limits for this experiment
+     * Returns all measures in the order of the columns
      * @return
      */
-    public static double[] getSuppressionLimits() {
-        return new double[]{0d, 1d};
+    private static int[] getMeasures() {
+        int[] measures = new int[] { FLASH, LIGHTNING, DISCOVERY, QUALITY,
+                                     FLASH_MEDIAN, FLASH_LOWER, FLASH_UPPER, FLASH_RUNS, FLASH_TIMES,
+                                     LIGHTNING_MEDIAN, LIGHTNING_LOWER, LIGHTNING_UPPER, LIGHTNING_RUNS, LIGHTNING_TIMES };
+        return BenchmarkMeasures.concat(measures, FLASH_PHASES, LIGHTNING_PHASES, FLASH_COUNTERS, LIGHTNING_COUNTERS);
     }
 
     /**
-     * Returns all quality measures for this experiment
+     * Returns the distributions of the durations of all phases
+     * @param runs
      * @return
      */
-    public static BenchmarkQualityMeasure[] getQualityMeasures() {
-        return new BenchmarkQualityMeasure[] { 
-                BenchmarkQualityMeasure.AECS,
-                BenchmarkQualityMeasure.LOSS,
-                BenchmarkQualityMeasure.DISCERNIBILITY,
-                BenchmarkQualityMeasure.ENTROPY,
-                BenchmarkQualityMeasure.PRECISION 
-        };
+    private static BenchmarkTimes[] getPhases(BenchmarkResults[] runs) {
+        BenchmarkPhase[] phases = BenchmarkPhase.values();
+        BenchmarkTimes[] result = new BenchmarkTimes[phases.length];
+        for (int i = 0; i < phases.length; i++) {
+            result[i] = new BenchmarkTimes();
+            for (BenchmarkResults run : runs) {
+                result[i].add(run.getTime(phases[i]));
+            }
+        }
+        return result;
     }
 
     /**
-     * Performs one experiment
-     * @param algorithm
-     * @param benchmarkMeasure
+     * Performs one experiment. Returns the execution times of Flash and Lightning as well as
+     * the quality and discovery time of Lightning when executed with Flash's minimal time limit.
+     * The number of runs is determined adaptively, see {@link BenchmarkFork}.
      * @param dataset
      * @param measure
      * @param criterion
      * @param suppressionLimit
+     * @return
      * @throws IOException
      */
-    private static void performExperiment(BenchmarkDataset dataset,
-                                          BenchmarkQualityMeasure measure,
-                                          BenchmarkPrivacyModel criterion,
-                                          double suppressionLimit) throws IOException {
+    private static Measurements performExperiment(BenchmarkDataset dataset,
+                                              BenchmarkQualityMeasure measure,
+                                              BenchmarkPrivacyModel criterion,
+                                              double suppressionLimit) throws IOException {
 
         System.out.println("Performing experiment 2 - " + dataset + "/" + measure + "/" +criterion + "/" + suppressionLimit);
         
         // Measure execution time of FLASH
-        double flash = Double.MAX_VALUE;
-        for (int i = 0; i < REPETITIONS; i++) {
-            flash = Math.min(flash, BenchmarkEnvironment.getBenchmarkResults(BenchmarkAlgorithm.FLASH, dataset, measure, criterion, 0, suppressionLimit).executionTime);
+        BenchmarkResults[] flashRuns = BenchmarkFork.getBenchmarkResults(BenchmarkAlgorithm.FLASH, dataset, measure, criterion, 0, suppressionLimit);
+        BenchmarkTimes flash = new BenchmarkTimes();
+        for (BenchmarkResults run : flashRuns) {
+            flash.add(run.executionTime);
         }
-        BENCHMARK.addValue(FLASH, flash);
 
         // Measure total time of lightning
-        double lightning = Double.MAX_VALUE;
-        for (int i = 0; i < REPETITIONS; i++) {
-            lightning = Math.min(lightning, BenchmarkEnvironment.getBenchmarkResults(BenchmarkAlgorithm.LIGHTNING, dataset, measure, criterion, Integer.MAX_VALUE, suppressionLimit).executionTime);
+        BenchmarkResults[] lightningRuns = BenchmarkFork.getBenchmarkResults(BenchmarkAlgorithm.LIGHTNING, dataset, measure, criterion, Integer.MAX_VALUE, suppressionLimit);
+        BenchmarkTimes lightning = new BenchmarkTimes();
+        for (BenchmarkResults run : lightningRuns) {
+            lightning.add(run.executionTime);
         }
-        BENCHMARK.addValue(LIGHTNING, lightning);
         
         // Measure performance of lightning when executed with flash's time limit
         double quality = -1;
         double discovery = Double.MAX_VALUE;
-        for (int i = 0; i < REPETITIONS; i++) {
-            BenchmarkResults run = BenchmarkEnvironment.getBenchmarkResults(BenchmarkAlgorithm.LIGHTNING, dataset, measure, criterion, (int)flash, suppressionLimit);
+        for (BenchmarkResults run : BenchmarkFork.getBenchmarkResults(BenchmarkAlgorithm.LIGHTNING, dataset, measure, criterion, Math.max(1, (int)Math.ceil(flash.getMinimum())), suppressionLimit)) {
             if (run.informationLoss != -1 && run.discoveryTime < discovery) {
                 discovery = run.discoveryTime;
                 quality = run.informationLoss;
@@ -180,7 +332,8 @@ public class BenchmarkExperiment2 {
             quality = quality - min;
             quality /= max-min;
         }
-        BENCHMARK.addValue(QUALITY, quality);
-        BENCHMARK.addValue(DISCOVERY, discovery);        
+        return new Measurements(flash, lightning, getPhases(flashRuns), getPhases(lightningRuns),
+                                getCounters(flashRuns), getCounters(lightningRuns), quality, discovery,
+                                new BenchmarkResults[] { flashRuns[0], lightningRuns[0] });
     }
 }
@@ -19,38 +19,60 @@
 
 package org.deidentifier.arx.benchmark;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 
 import org.deidentifier.arx.BenchmarkEnvironment;
 import org.deidentifier.arx.BenchmarkEnvironment.BenchmarkResults;
+import org.deidentifier.arx.BenchmarkMatrix;
 import org.deidentifier.arx.BenchmarkSetup.BenchmarkAlgorithm;
 import org.deidentifier.arx.BenchmarkSetup.BenchmarkPrivacyModel;
 import org.deidentifier.arx.BenchmarkSetup.BenchmarkDataset;
 import org.deidentifier.arx.BenchmarkSetup.BenchmarkQualityMeasure;
+import org.deidentifier.arx.algorithm.AlgorithmCounter;
+import org.deidentifier.arx.algorithm.AlgorithmTrackRecord;
+import org.deidentifier.arx.benchmark.BenchmarkScheduler.Cell;
+import org.deidentifier.arx.benchmark.BenchmarkScheduler.Isolation;
 
-import cern.colt.list.DoubleArrayList;
 import de.linearbits.subframe.Benchmark;
 import de.linearbits.subframe.analyzer.ValueBuffer;
 
 /**
  * Performs the third experiment, which is an evaluation of our approach with high-dimensional data.
+ * The algorithm can be configured with the system property <code>benchmark.experiment3.algorithm</code>,
+ * e.g. <code>FLASH</code>, to compare the convergence of other algorithms under the same time limit.
+ * Results of algorithms other than Lightning are stored in <code>results/experiment3-[algorithm]</code>.
  *  
  * @author Fabian Prasser
  */
 public class BenchmarkExperiment3 {
 
+    /** The algorithm */
+    public static final BenchmarkAlgorithm ALGORITHM   = BenchmarkAlgorithm.valueOf(System.getProperty("benchmark.experiment3.algorithm", "LIGHTNING"));
+
+    /** Name of the results */
+    public static final String             NAME        = ALGORITHM == BenchmarkAlgorithm.LIGHTNING ? "experiment3" : "experiment3-" + ALGORITHM.name().toLowerCase();
+
     /** The benchmark instance */
-    private static final Benchmark BENCHMARK         = new Benchmark(new String[] { "Quality measure", "Privacy model", "Suppression limit", "Dataset" });
+    private static final Benchmark         BENCHMARK   = new Benchmark(new String[] { "Quality measure", "Privacy model", "Suppression limit", "Dataset" });
 
     /** Time */
-    public static final int        TIME              = BENCHMARK.addMeasure("Time");
+    public static final int                TIME        = BENCHMARK.addMeasure("Time");
 
     /** Utility */
-    public static final int        QUALITY           = BENCHMARK.addMeasure("Quality");
+    public static final int                QUALITY     = BENCHMARK.addMeasure("Quality");
 
     /** Complete search performed */
-    public static final int        COMPLETE          = BENCHMARK.addMeasure("Complete");
+    public static final int                COMPLETE    = BENCHMARK.addMeasure("Complete");
+
+    /** Number of checks performed until the step */
+    public static final int                STEP_CHECKS = BENCHMARK.addMeasure("Step checks");
+
+    /** Counters of the search */
+    public static final int[]              COUNTERS    = BenchmarkMeasures.add(BENCHMARK, null, AlgorithmCounter.values());
 
     /**
      * Main entry point
@@ -61,114 +83,182 @@ public class BenchmarkExperiment3 {
     public static void main(String[] args) throws IOException {
         
         // Init
-        BENCHMARK.addAnalyzer(TIME, new ValueBuffer());
-        BENCHMARK.addAnalyzer(QUALITY, new ValueBuffer());
-        BENCHMARK.addAnalyzer(COMPLETE, new ValueBuffer());
+        int[] measures = BenchmarkMeasures.concat(new int[] { TIME, QUALITY, COMPLETE, STEP_CHECKS }, COUNTERS);
+        for (int measure : measures) {
+            BENCHMARK.addAnalyzer(measure, new ValueBuffer());
+        }
+
+        // Matrix, shard and results of previous runs
+        BenchmarkMatrix matrix = BenchmarkMatrix.load("experiment3", args);
+        BenchmarkShard shard = BenchmarkShard.parse(args);
+        final BenchmarkResultsFile results = new BenchmarkResultsFile(BENCHMARK, shard.getResultsFile(NAME), measures);
 
         // For each relevant combination
-        for (BenchmarkQualityMeasure measure : getQualityMeasures()) {
-            for (BenchmarkPrivacyModel criterion : getPrivacyModels()) {
-                for (double suppressionLimit : getSuppressionLimits()) {
-                    for (BenchmarkDataset dataset : getDatasets()) {
-
-                        // Measurements
-                        performExperiment(dataset, measure, criterion, suppressionLimit);
-                        
-                        // Write after each experiment
-                        BENCHMARK.getResults().write(new File("results/experiment3.csv"));
+        BenchmarkScheduler scheduler = new BenchmarkScheduler();
+        int cell = 0;
+        for (final BenchmarkQualityMeasure measure : matrix.getQualityMeasures()) {
+            for (final BenchmarkPrivacyModel criterion : matrix.getPrivacyModels()) {
+                for (final double suppressionLimit : matrix.getSuppressionLimits()) {
+                    for (final BenchmarkDataset dataset : matrix.getDatasets()) {
+
+                        // Skip cells of other shards and completed cells
+                        if (!shard.contains(cell++) || results.isCompleted(measure.toString(), criterion.toString(), String.valueOf(suppressionLimit), dataset.toString())) {
+                            continue;
+                        }
+
+                        // Quality depends on the time limit, must not be disturbed
+                        scheduler.submit(Isolation.EXCLUSIVE, new Cell<BenchmarkResults>() {
+
+                            @Override
+                            public BenchmarkResults perform() throws IOException {
+                                
+                                // Measurements
+                                return performExperiment(dataset, measure, criterion, suppressionLimit);
+                            }
+
+                            @Override
+                            public void record(BenchmarkResults result) throws IOException {
+                                
+                                // Add
+                                addResults(result, dataset, measure, criterion, suppressionLimit);
+                                writeTrackRecord(result, dataset, measure, criterion, suppressionLimit);
+                                BenchmarkProfiles.write(NAME, new String[] { ALGORITHM.toString() }, new BenchmarkResults[] { result },
+                                                        measure.toString(), criterion.toString(), String.valueOf(suppressionLimit), dataset.toString());
+                                
+                                // Write after each experiment
+                                results.write();
+                            }
+                        });
                     }
                 }
             }
         }
-    }
-    /**
-     * Returns all criteria for this experiment
-     * @return
-     */
-    public static BenchmarkPrivacyModel[] getPrivacyModels() {
-        return new BenchmarkPrivacyModel[]{
-            BenchmarkPrivacyModel.K_ANONYMITY,
-            BenchmarkPrivacyModel.P_UNIQUENESS
-        };
-    }
-    /**
-     * Returns all datasets for this experiment
-     * @return
-     */
-    public static BenchmarkDataset[] getDatasets() {
-        return new BenchmarkDataset[] { 
-                BenchmarkDataset.SS13ACS_15,
-                BenchmarkDataset.SS13ACS_20,
-                BenchmarkDataset.SS13ACS_25,
-                BenchmarkDataset.SS13ACS_30
-        };
-    }
-    /**
-     * Returns all suppression limits for this experiment
-     * @return
-     */
-    public static double[] getSuppressionLimits() {
-        return new double[]{0d, 1d};
+        scheduler.run();
     }
 
     /**
-     * Returns all utility measures for this experiment
-     * @return
-     */
-    public static BenchmarkQualityMeasure[] getQualityMeasures() {
-        return new BenchmarkQualityMeasure[] { 
-                BenchmarkQualityMeasure.AECS,
-                BenchmarkQualityMeasure.LOSS,
-                BenchmarkQualityMeasure.DISCERNIBILITY,
-                BenchmarkQualityMeasure.ENTROPY,
-                BenchmarkQualityMeasure.PRECISION
-        };
-    }
-
-    /**
-     * Performs one experiment
-     * @param algorithm
-     * @param benchmarkMeasure
+     * Adds the track record of one experiment to the benchmark. Steps whose utility is not finite
+     * are ignored. If no step remains, a single row without quality is added, so that the cell is
+     * considered to be completed.
+     * @param run
      * @param dataset
      * @param measure
      * @param criterion
      * @param suppressionLimit
-     * @throws IOException
      */
-    private static void performExperiment(BenchmarkDataset dataset,
-                                          BenchmarkQualityMeasure measure,
-                                          BenchmarkPrivacyModel criterion,
-                                          double suppressionLimit) throws IOException {
+    private static void addResults(BenchmarkResults run,
+                                   BenchmarkDataset dataset,
+                                   BenchmarkQualityMeasure measure,
+                                   BenchmarkPrivacyModel criterion,
+                                   double suppressionLimit) {
         
-        System.out.println("Performing experiment 3 - " + dataset + "/" + measure + "/" +criterion + "/" + suppressionLimit);
+        AlgorithmTrackRecord trackRecord = run.trackRecord;
         
-        // Perform
-        BenchmarkResults run = BenchmarkEnvironment.getBenchmarkResults(BenchmarkAlgorithm.LIGHTNING, dataset, measure, criterion, 600 * 1000, suppressionLimit);
-        DoubleArrayList trackRecord = run.trackRecord;
+        // First and last step with finite utility
+        int first = 0;
+        while (first < trackRecord.size() && !isFinite(trackRecord.getUtility(first))) {
+            first++;
+        }
+        int last = trackRecord.size() - 1;
+        while (last >= first && !isFinite(trackRecord.getUtility(last))) {
+            last--;
+        }
         
-        // Check if completed
-        boolean complete = run.executionTime < 600 * 1000;
+        // No solution found
+        if (first > last) {
+            BENCHMARK.addRun(measure.toString(), criterion.toString(), String.valueOf(suppressionLimit), dataset.toString());
+            BENCHMARK.addValue(TIME, run.executionTime);
+            BENCHMARK.addValue(QUALITY, Double.NaN);
+            BENCHMARK.addValue(COMPLETE, run.complete);
+            BENCHMARK.addValue(STEP_CHECKS, 0);
+            for (int j = 0; j < COUNTERS.length; j++) {
+                BENCHMARK.addValue(COUNTERS[j], run.counters[j]);
+            }
+            return;
+        }
         
         // Min and max
-        double min = trackRecord.get(1);
-        double max = trackRecord.get(trackRecord.size()-1);
+        double min = trackRecord.getUtility(first);
+        double max = trackRecord.getUtility(last);
 
         // For each step
         double previous = Double.MAX_VALUE;
-        for (int i = 0; i < trackRecord.size(); i += 2) {
+        for (int i = first; i <= last; i++) {
+            
+            // Ignore steps without utility
+            if (!isFinite(trackRecord.getUtility(i))) {
+                continue;
+            }
             
             // Normalize
-            double utility = min == max ? 1d : (trackRecord.get(i + 1) - min) / (max - min);
+            double utility = min == max ? 1d : (trackRecord.getUtility(i) - min) / (max - min);
             
             // Ignore steps in which utility did not change
             if (utility == -0d) utility = +0d;
             if (utility != previous) {
                 previous = utility; 
                 BENCHMARK.addRun(measure.toString(), criterion.toString(), String.valueOf(suppressionLimit), dataset.toString());
-                BENCHMARK.addValue(TIME, trackRecord.get(i));
+                BENCHMARK.addValue(TIME, trackRecord.getTimeMillis(i));
                 BENCHMARK.addValue(QUALITY, utility);
-                BENCHMARK.addValue(COMPLETE, complete);
+                BENCHMARK.addValue(COMPLETE, run.complete);
+                BENCHMARK.addValue(STEP_CHECKS, trackRecord.getChecks(i));
+                for (int j = 0; j < COUNTERS.length; j++) {
+                    BENCHMARK.addValue(COUNTERS[j], run.counters[j]);
+                }
             }
         }
     }
-}
+
+    /**
+     * Returns whether the given value is finite
+     * @param value
+     * @return
+     */
+    private static boolean isFinite(double value) {
+        return !Double.isNaN(value) && !Double.isInfinite(value);
+    }
+
+    /**
+     * Performs one experiment
+     * @param dataset
+     * @param measure
+     * @param criterion
+     * @param suppressionLimit
+     * @return
+     * @throws IOException
+     */
+    private static BenchmarkResults performExperiment(BenchmarkDataset dataset,
+                                                      BenchmarkQualityMeasure measure,
+                                                      BenchmarkPrivacyModel criterion,
+                                                      double suppressionLimit) throws IOException {
+        
+        System.out.println("Performing experiment 3 - " + ALGORITHM + "/" + dataset + "/" + measure + "/" +criterion + "/" + suppressionLimit);
+        
+        // Perform
+        return BenchmarkEnvironment.getBenchmarkResults(ALGORITHM, dataset, measure, criterion, 600 * 1000, suppressionLimit);
+    }
+
+    /**
+     * Writes the track record of one experiment to a binary file in <code>results/[name]-tracks</code>
+     * @param run
+     * @param dataset
+     * @param measure
+     * @param criterion
+     * @param suppressionLimit
+     * @throws IOException
+     */
+    private static void writeTrackRecord(BenchmarkResults run,
+                                         BenchmarkDataset dataset,
+                                         BenchmarkQualityMeasure measure,
+                                         BenchmarkPrivacyModel criterion,
+                                         double suppressionLimit) throws IOException {
+
+        File file = BenchmarkResultsFile.getCellFile(NAME + "-tracks", "bin", measure.toString(), criterion.toString(), String.valueOf(suppressionLimit), dataset.toString());
+        OutputStream output = new BufferedOutputStream(new FileOutputStream(file));
+        try {
+            run.trackRecord.write(output);
+        } finally {
+            output.close();
+        }
+    }
+}
\ No newline at end of file
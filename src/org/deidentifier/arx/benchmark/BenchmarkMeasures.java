@@ -0,0 +1,66 @@
+/*
+ * Source code of the experiments from our 2016 paper 
+ * "Lightning: Utility-driven anonymization of high-dimensional data"
+ *      
+ * Copyright (C) 2015 Fabian Prasser, Raffael Bild, Johanna Eicher, Helmut Spengler, Florian Kohlmayer
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.benchmark;
+
+import de.linearbits.subframe.Benchmark;
+
+/**
+ * Helpers for defining groups of measures, e.g. one measure per phase or counter
+ * 
+ * @author Fabian Prasser
+ */
+public class BenchmarkMeasures {
+
+    /**
+     * Adds one measure per label. Measures are named after the prefix followed by the label
+     * in lower case, or after the label alone if the prefix is null.
+     * @param benchmark
+     * @param prefix
+     * @param labels
+     * @return
+     */
+    public static int[] add(Benchmark benchmark, String prefix, Object[] labels) {
+        int[] result = new int[labels.length];
+        for (int i = 0; i < labels.length; i++) {
+            String label = labels[i].toString();
+            result[i] = benchmark.addMeasure(prefix == null ? label : prefix + " " + label.toLowerCase());
+        }
+        return result;
+    }
+
+    /**
+     * Concatenates the given groups of measures
+     * @param measures
+     * @return
+     */
+    public static int[] concat(int[]... measures) {
+        int length = 0;
+        for (int[] group : measures) {
+            length += group.length;
+        }
+        int[] result = new int[length];
+        int offset = 0;
+        for (int[] group : measures) {
+            System.arraycopy(group, 0, result, offset, group.length);
+            offset += group.length;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Source code of the experiments from our 2016 paper 
+ * "Lightning: Utility-driven anonymization of high-dimensional data"
+ *      
+ * Copyright (C) 2015 Fabian Prasser, Raffael Bild, Johanna Eicher, Helmut Spengler, Florian Kohlmayer
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.benchmark;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Combines the results files written by the shards of an experiment into a single file.
+ * Cells are taken from the shards in round-robin order, which restores the order in which
+ * the cells have been enumerated by the experiment. Usage:<br>
+ * <br>
+ * <code>BenchmarkMerge experiment3 4</code> combines <code>results/experiment3-shard-[1..4]-of-4.csv</code>
+ * into <code>results/experiment3.csv</code><br>
+ * <code>BenchmarkMerge output.csv input1.csv input2.csv ...</code> combines arbitrary files
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkMerge {
+
+    /**
+     * The results of one shard
+     *
+     * @author Fabian Prasser
+     */
+    private static class Shard {
+
+        /** Reader */
+        private final BufferedReader reader;
+        /** Number of columns describing a run */
+        private final int            columns;
+        /** Next line, if any */
+        private String               next;
+
+        /**
+         * Creates a new instance
+         * @param reader
+         * @param columns
+         * @throws IOException
+         */
+        private Shard(BufferedReader reader, int columns) throws IOException {
+            this.reader = reader;
+            this.columns = columns;
+            this.next = reader.readLine();
+        }
+
+        /**
+         * Returns the lines of the next cell, or null if there are none
+         * @return
+         * @throws IOException
+         */
+        private List<String> nextCell() throws IOException {
+            if (next == null) {
+                return null;
+            }
+            List<String> result = new ArrayList<String>();
+            String key = getKey(next, columns);
+            while (next != null && getKey(next, columns).equals(key)) {
+                result.add(next);
+                next = reader.readLine();
+            }
+            return result;
+        }
+    }
+
+    /** Charset */
+    private static final Charset CHARSET = Charset.forName("UTF-8");
+
+    /**
+     * Main entry point
+     * @param args
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+
+        // Parse
+        File output;
+        List<File> inputs = new ArrayList<File>();
+        if (args.length == 2 && args[1].matches("[0-9]+")) {
+            output = new File("results/" + args[0] + ".csv");
+            int count = Integer.parseInt(args[1]);
+            for (int i = 1; i <= count; i++) {
+                inputs.add(new File("results/" + args[0] + "-shard-" + i + "-of-" + count + ".csv"));
+            }
+        } else if (args.length >= 2) {
+            output = new File(args[0]);
+            for (int i = 1; i < args.length; i++) {
+                inputs.add(new File(args[i]));
+            }
+        } else {
+            System.out.println("Usage: BenchmarkMerge <experiment> <shards> | <output> <input>...");
+            return;
+        }
+
+        // Merge
+        merge(inputs, output);
+        System.out.println("Merged " + inputs.size() + " files into " + output);
+    }
+
+    /**
+     * Merges the given files, which must have identical headers
+     * @param inputs
+     * @param output
+     * @throws IOException
+     */
+    public static void merge(List<File> inputs, File output) throws IOException {
+
+        // Open all inputs and check headers
+        List<Shard> shards = new ArrayList<Shard>();
+        String[] header = null;
+        File temp = File.createTempFile(output.getName(), ".tmp", output.getAbsoluteFile().getParentFile());
+        try {
+            for (File input : inputs) {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(input), CHARSET));
+                String[] current = new String[] { reader.readLine(), reader.readLine() };
+                if (current[0] == null || current[1] == null) {
+                    reader.close();
+                    throw new IOException("Missing header in " + input);
+                }
+                if (header == null) {
+                    header = current;
+                } else if (!header[0].equals(current[0]) || !header[1].equals(current[1])) {
+                    reader.close();
+                    throw new IOException("Header of " + input + " does not match header of " + inputs.get(0));
+                }
+                shards.add(new Shard(reader, getColumns(current[0])));
+            }
+            if (header == null) {
+                throw new IOException("No input files");
+            }
+
+            // Write
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(temp), CHARSET));
+            try {
+                writer.write(header[0]);
+                writer.newLine();
+                writer.write(header[1]);
+                writer.newLine();
+                boolean remaining = true;
+                while (remaining) {
+                    remaining = false;
+                    for (Shard shard : shards) {
+                        List<String> cell = shard.nextCell();
+                        if (cell != null) {
+                            remaining = true;
+                            for (String line : cell) {
+                                writer.write(line);
+                                writer.newLine();
+                            }
+                        }
+                    }
+                }
+            } finally {
+                writer.close();
+            }
+            Files.move(temp.toPath(), output.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        } finally {
+            for (Shard shard : shards) {
+                shard.reader.close();
+            }
+            temp.delete();
+        }
+    }
+
+    /**
+     * Returns the number of columns describing a run, which are empty in the first line of the header
+     * @param header
+     * @return
+     */
+    private static int getColumns(String header) {
+        int columns = 0;
+        while (columns < header.length() && header.charAt(columns) == ';') {
+            columns++;
+        }
+        return columns;
+    }
+
+    /**
+     * Returns the part of the line describing the run
+     * @param line
+     * @param columns
+     * @return
+     */
+    private static String getKey(String line, int columns) {
+        int index = -1;
+        for (int i = 0; i < columns; i++) {
+            index = line.indexOf(';', index + 1);
+            if (index == -1) {
+                return line;
+            }
+        }
+        return line.substring(0, index);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Source code of the experiments from our 2016 paper 
+ * "Lightning: Utility-driven anonymization of high-dimensional data"
+ *      
+ * Copyright (C) 2015 Fabian Prasser, Raffael Bild, Johanna Eicher, Helmut Spengler, Florian Kohlmayer
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.benchmark;
+
+import java.io.IOException;
+
+import org.deidentifier.arx.BenchmarkEnvironment.BenchmarkResults;
+import org.deidentifier.arx.algorithm.AlgorithmProfile;
+import org.deidentifier.arx.algorithm.AlgorithmProfile.ProfileMeasure;
+
+import de.linearbits.subframe.Benchmark;
+import de.linearbits.subframe.analyzer.ValueBuffer;
+
+/**
+ * Writes the exploration profiles of the runs of one cell of an experiment. Profiles are only
+ * recorded if the system property <code>benchmark.profile</code> is set. They are written to
+ * <code>results/[experiment]-profiles</code>, with one row per algorithm and level.
+ * 
+ * @author Fabian Prasser
+ */
+public class BenchmarkProfiles {
+
+    /**
+     * Writes the profiles of the given runs, if any
+     * @param experiment
+     * @param algorithms
+     * @param runs
+     * @param cell
+     * @throws IOException
+     */
+    public static void write(String experiment, String[] algorithms, BenchmarkResults[] runs, String... cell) throws IOException {
+
+        // Prepare
+        Benchmark benchmark = new Benchmark(new String[] { "Algorithm", "Level" });
+        int[] measures = BenchmarkMeasures.add(benchmark, null, ProfileMeasure.values());
+        for (int measure : measures) {
+            benchmark.addAnalyzer(measure, new ValueBuffer());
+        }
+
+        // Add
+        boolean found = false;
+        for (int i = 0; i < runs.length; i++) {
+            AlgorithmProfile profile = runs[i].profile;
+            if (profile != null) {
+                found = true;
+                for (int level = 0; level < profile.getLevels(); level++) {
+                    benchmark.addRun(algorithms[i], String.valueOf(level));
+                    for (ProfileMeasure measure : ProfileMeasure.values()) {
+                        benchmark.addValue(measures[measure.ordinal()], profile.get(level, measure));
+                    }
+                }
+            }
+        }
+
+        // Write
+        if (found) {
+            benchmark.getResults().write(BenchmarkResultsFile.getCellFile(experiment + "-profiles", "csv", cell));
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Source code of the experiments from our 2016 paper 
+ * "Lightning: Utility-driven anonymization of high-dimensional data"
+ *      
+ * Copyright (C) 2015 Fabian Prasser, Raffael Bild, Johanna Eicher, Helmut Spengler, Florian Kohlmayer
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.benchmark;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.deidentifier.arx.BenchmarkStore;
+
+import de.linearbits.subframe.Benchmark;
+import de.linearbits.subframe.io.CSVFile;
+import de.linearbits.subframe.io.CSVLine;
+
+/**
+ * Connects a benchmark with its results file. Results from previous, possibly interrupted runs are
+ * loaded into the benchmark on startup, so that completed cells can be skipped. The file is
+ * written by atomically replacing it, so that a crash can not leave it in an inconsistent state.
+ * Delete the file to perform all cells again. A columnar store of the results is written next to
+ * the file for analyses.
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkResultsFile {
+
+    /** The benchmark */
+    private final Benchmark   benchmark;
+
+    /** The file */
+    private final File        file;
+
+    /** Runs contained in the file */
+    private final Set<String> completed = new HashSet<String>();
+
+    /**
+     * Creates a new instance and loads the existing results into the benchmark. The analyzers must
+     * already have been added to the benchmark.
+     * 
+     * @param benchmark
+     * @param file
+     * @param measures The measures in the order of the columns in the file
+     * @throws IOException
+     */
+    public BenchmarkResultsFile(Benchmark benchmark, File file, int... measures) throws IOException {
+        this.benchmark = benchmark;
+        this.file = file;
+        if (!file.exists()) {
+            return;
+        }
+
+        // Check layout
+        String[] header = getHeader(file);
+        if (header.length < measures.length) {
+            throw new IOException("Layout of " + file + " does not match the experiment, move it away to start over");
+        }
+        for (int i = 0; i < measures.length; i++) {
+            if (!header[header.length - measures.length + i].equals(benchmark.getMeasure(measures[i]))) {
+                throw new IOException("Layout of " + file + " does not match the experiment, move it away to start over");
+            }
+        }
+
+        // Load
+        Iterator<CSVLine> iterator = new CSVFile(file).iterator();
+        while (iterator.hasNext()) {
+            String[] line = iterator.next().getData();
+            String[] run = Arrays.copyOf(line, line.length - measures.length);
+            benchmark.addRun(run);
+            for (int i = 0; i < measures.length; i++) {
+                benchmark.addValue(measures[i], line[run.length + i]);
+            }
+            completed.add(getKey(run));
+        }
+        System.out.println("Loaded " + completed.size() + " completed cells from " + file);
+    }
+
+    /**
+     * Returns a file for storing additional results of one cell of an experiment in the folder
+     * <code>results/[name]</code>, which is created if needed
+     * @param name
+     * @param extension
+     * @param cell
+     * @return
+     * @throws IOException
+     */
+    public static File getCellFile(String name, String extension, String... cell) throws IOException {
+        File folder = new File("results", name);
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Cannot create folder: " + folder);
+        }
+        StringBuilder builder = new StringBuilder();
+        for (String label : cell) {
+            if (builder.length() > 0) {
+                builder.append('-');
+            }
+            builder.append(label.replaceAll("[^A-Za-z0-9.]+", "_"));
+        }
+        return new File(folder, builder.append('.').append(extension).toString());
+    }
+
+    /**
+     * Returns whether results for the given run have already been recorded
+     * @param run
+     * @return
+     */
+    public boolean isCompleted(String... run) {
+        return completed.contains(getKey(run));
+    }
+
+    /**
+     * Writes the results of the benchmark by atomically replacing the file, and updates the store
+     * @throws IOException
+     */
+    public void write() throws IOException {
+
+        // Write to a temporary file in the same directory
+        File parent = file.getAbsoluteFile().getParentFile();
+        File temp = File.createTempFile(file.getName(), ".tmp", parent);
+        try {
+            benchmark.getResults().write(temp);
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            temp.delete();
+        }
+
+        // Update store
+        BenchmarkStore.fromCSV(file).write(BenchmarkStore.getStoreFile(file));
+    }
+
+    /**
+     * Returns the first line of the header, which contains the names of the measures
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    private String[] getHeader(File file) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), Charset.forName("UTF-8")));
+        try {
+            String line = reader.readLine();
+            return line == null ? new String[0] : line.split(";", -1);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Returns a key for the given run
+     * @param run
+     * @return
+     */
+    private String getKey(String[] run) {
+        return Arrays.toString(run);
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Source code of the experiments from our 2016 paper 
+ * "Lightning: Utility-driven anonymization of high-dimensional data"
+ *      
+ * Copyright (C) 2015 Fabian Prasser, Raffael Bild, Johanna Eicher, Helmut Spengler, Florian Kohlmayer
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Executes the cells of an experiment on a thread pool. Results are recorded by the calling
+ * thread in the order in which the cells have been submitted. Cells which measure quality only
+ * may be executed concurrently, while cells which measure execution times are executed
+ * exclusively. The number of threads can be configured with the system property
+ * <code>benchmark.threads</code>.
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkScheduler {
+
+    /**
+     * One cell of an experiment
+     *
+     * @author Fabian Prasser
+     * @param <T>
+     */
+    public static abstract class Cell<T> {
+
+        /**
+         * Performs the measurements. Called by a worker thread.
+         * @return
+         * @throws IOException
+         */
+        public abstract T perform() throws IOException;
+
+        /**
+         * Records the results. Called by the thread running the scheduler, in order of submission.
+         * @param result
+         * @throws IOException
+         */
+        public abstract void record(T result) throws IOException;
+    }
+
+    /**
+     * Isolation level of a cell
+     *
+     * @author Fabian Prasser
+     */
+    public static enum Isolation {
+        /** The cell may share the machine with other shared cells */
+        SHARED,
+        /** No other cell is executed while this cell is running */
+        EXCLUSIVE
+    }
+
+    /**
+     * A submitted cell
+     *
+     * @author Fabian Prasser
+     * @param <T>
+     */
+    private static class Task<T> implements Callable<T> {
+
+        /** Cell */
+        private final Cell<T> cell;
+        /** Lock implementing the isolation level */
+        private final Lock    lock;
+        /** Future */
+        private Future<T>     future;
+
+        /**
+         * Creates a new instance
+         * @param cell
+         * @param lock
+         */
+        private Task(Cell<T> cell, Lock lock) {
+            this.cell = cell;
+            this.lock = lock;
+        }
+
+        @Override
+        public T call() throws Exception {
+            lock.lock();
+            try {
+                return cell.perform();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Waits for the result and records it
+         * @throws IOException
+         */
+        private void record() throws IOException {
+            T result;
+            try {
+                result = future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                } else if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IOException(e.getCause());
+            }
+            cell.record(result);
+        }
+
+        /**
+         * Submits this task
+         * @param executor
+         */
+        private void submit(ExecutorService executor) {
+            this.future = executor.submit(this);
+        }
+    }
+
+    /** Lock for implementing isolation levels */
+    private final ReadWriteLock lock  = new ReentrantReadWriteLock(true);
+
+    /** Submitted cells */
+    private final List<Task<?>> tasks = new ArrayList<Task<?>>();
+
+    /** Number of threads */
+    private final int           threads;
+
+    /**
+     * Creates a new instance using the configured number of threads
+     */
+    public BenchmarkScheduler() {
+        this(Integer.getInteger("benchmark.threads", Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Creates a new instance
+     * @param threads
+     */
+    public BenchmarkScheduler(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Number of threads must be positive");
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Executes all submitted cells and records their results in the order of submission
+     * @throws IOException
+     */
+    public void run() throws IOException {
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+
+            // Submit
+            for (Task<?> task : tasks) {
+                task.submit(executor);
+            }
+
+            // Record
+            for (Task<?> task : tasks) {
+                task.record();
+            }
+        } finally {
+            tasks.clear();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Adds a cell
+     * @param isolation
+     * @param cell
+     */
+    public <T> void submit(Isolation isolation, Cell<T> cell) {
+        Lock lock = isolation == Isolation.EXCLUSIVE ? this.lock.writeLock() : this.lock.readLock();
+        tasks.add(new Task<T>(cell, lock));
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Source code of the experiments from our 2016 paper 
+ * "Lightning: Utility-driven anonymization of high-dimensional data"
+ *      
+ * Copyright (C) 2015 Fabian Prasser, Raffael Bild, Johanna Eicher, Helmut Spengler, Florian Kohlmayer
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.benchmark;
+
+import java.io.File;
+
+import org.deidentifier.arx.BenchmarkMatrix;
+
+/**
+ * Deterministically assigns the cells of an experiment to one of several shards, so that
+ * an experiment can be executed on multiple machines. Cells are numbered in the order in
+ * which they are enumerated by the experiment and distributed round-robin. Each shard
+ * writes its own results file, which can be combined with {@link BenchmarkMerge}.
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkShard {
+
+    /** Command line option */
+    private static final String OPTION = "--shard";
+
+    /**
+     * Parses the option <code>--shard i/n</code>, with 1 &lt;= i &lt;= n, from the command line.
+     * Returns a shard containing all cells, if the option is not present.
+     * 
+     * @param args
+     * @return
+     */
+    public static BenchmarkShard parse(String[] args) {
+        String value = BenchmarkMatrix.getOption(args, OPTION);
+        return value != null ? parse(value) : new BenchmarkShard(0, 1);
+    }
+
+    /**
+     * Parses a specification of the form i/n
+     * @param value
+     * @return
+     */
+    private static BenchmarkShard parse(String value) {
+        String[] parts = value.split("/");
+        if (parts.length == 2) {
+            try {
+                int index = Integer.parseInt(parts[0].trim());
+                int count = Integer.parseInt(parts[1].trim());
+                if (index >= 1 && index <= count) {
+                    return new BenchmarkShard(index - 1, count);
+                }
+            } catch (NumberFormatException e) {
+                // Handled below
+            }
+        }
+        throw new IllegalArgumentException("Invalid shard: " + value + ", expected i/n with 1 <= i <= n");
+    }
+
+    /** Index of this shard, zero-based */
+    private final int index;
+
+    /** Number of shards */
+    private final int count;
+
+    /**
+     * Creates a new instance
+     * @param index
+     * @param count
+     */
+    private BenchmarkShard(int index, int count) {
+        this.index = index;
+        this.count = count;
+    }
+
+    /**
+     * Returns whether the cell with the given number belongs to this shard
+     * @param cell
+     * @return
+     */
+    public boolean contains(int cell) {
+        return cell % count == index;
+    }
+
+    /**
+     * Returns the results file for the experiment with the given name. Without sharding,
+     * this is <code>results/[name].csv</code>.
+     * 
+     * @param name
+     * @return
+     */
+    public File getResultsFile(String name) {
+        if (count == 1) {
+            return new File("results/" + name + ".csv");
+        } else {
+            return new File("results/" + name + "-shard-" + (index + 1) + "-of-" + count + ".csv");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return (index + 1) + "/" + count;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Source code of the experiments from our 2016 paper 
+ * "Lightning: Utility-driven anonymization of high-dimensional data"
+ *      
+ * Copyright (C) 2015 Fabian Prasser, Raffael Bild, Johanna Eicher, Helmut Spengler, Florian Kohlmayer
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.metric.v2;
+
+import org.deidentifier.arx.metric.InformationLoss;
+
+/**
+ * Converts the information loss of the supported quality models into primitive values, which
+ * are ordered like the information loss itself. The two components of IGreedy are integers, which
+ * are packed into a long that preserves their lexicographic order. This includes the sentinel
+ * -Integer.MAX_VALUE, which IGreedy uses as the first component if there is no equivalence class.
+ * 
+ * @author Fabian Prasser
+ */
+public class InformationLossCodec {
+
+    /** Largest magnitude of a long that can be represented exactly as a double */
+    private static final long MAX_EXACT = 1L << 53;
+
+    /**
+     * Returns the given information loss of IGreedy as a key, which is ordered lexicographically
+     * @param loss
+     * @return
+     */
+    public static long encode(IGreedyInformationLoss loss) {
+        double[] value = loss.getValue();
+        return ((long) value[0] << 32) + ((long) value[1] - Integer.MIN_VALUE);
+    }
+
+    /**
+     * Returns the given information loss as a double. For IGreedy, the packed key is returned,
+     * which is only possible if it can be represented exactly, i.e. if the absolute value of the
+     * first component is less than 2^21. This is not the case for the sentinel.
+     * @param loss
+     * @return
+     * @throws IllegalArgumentException if the information loss is not supported or cannot be
+     *         represented exactly
+     */
+    public static double encode(InformationLoss<?> loss) {
+        if (loss instanceof ILSingleDimensional) {
+            return ((ILSingleDimensional) loss).getValue();
+        } else if (loss instanceof AbstractILMultiDimensional) {
+            return ((AbstractILMultiDimensional) loss).getAggregate();
+        } else if (loss instanceof IGreedyInformationLoss) {
+            long key = encode((IGreedyInformationLoss) loss);
+            if (key <= -MAX_EXACT || key >= MAX_EXACT) {
+                throw new IllegalArgumentException("Information loss cannot be represented exactly: " + loss);
+            }
+            return key;
+        } else {
+            throw new IllegalArgumentException("Unsupported information loss: " + (loss == null ? null : loss.getClass().getSimpleName()));
+        }
+    }
+}